@@ -0,0 +1,94 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Class that reads the bits packed by a BitWriter back out of an input stream (most significant bit first)
+ * @author Esther Shin
+ */
+public class BitReader{
+
+  /**
+   * the stream that the packed bytes are read from
+   */
+  private InputStream in;
+
+  /**
+   * the byte currently being read
+   */
+  private int current;
+
+  /**
+   * the number of bits of the current byte that have not been read yet
+   */
+  private int bitsLeft;
+
+  /**
+   * the constructor
+   * @param in  the stream that the packed bytes will be read from
+   */
+  public BitReader(InputStream in){
+    this.in = in;
+  }
+
+  /**
+   * Method that reads a single bit
+   * @return the next bit (0 or 1)
+   */
+  public int readBit() throws IOException{
+    if(bitsLeft == 0){
+      current = in.read();
+      if(current < 0){
+        throw new EOFException("unexpected end of compressed data");
+      }
+      bitsLeft = 8;
+    }
+    bitsLeft = bitsLeft - 1;
+    return (current >>> bitsLeft) & 1;
+  }
+
+  /**
+   * Method that reads a code of the given number of bits
+   * @param length  the number of bits to read (between 0 and 32)
+   * @return the bits read, with the first bit read as the most significant
+   */
+  public long readBits(int length) throws IOException{
+    /**
+     * bits: stores the bits read so far
+     */
+    long bits = 0;
+    for(int i = 0; i < length; i = i + 1){
+      bits = (bits << 1) | readBit();
+    }
+    return bits;
+  }
+
+  /**
+   * Method that reads a number written by BitWriter.writeVarLong
+   * @return the number read
+   */
+  public long readVarLong() throws IOException{
+    /**
+     * value: stores the number being rebuilt 7 bits at a time
+     */
+    long value = 0;
+    for(int shift = 0; shift < 64; shift = shift + 7){
+      /**
+       * next: stores the next byte of the number
+       */
+      long next = readBits(8);
+      value = value | ((next & 0x7F) << shift);
+      if((next & 0x80) == 0){
+        return value;
+      }
+    }
+    throw new IOException("malformed variable-length number in compressed data");
+  }
+
+  /**
+   * Method that skips the rest of the current byte so that the next read starts on a byte boundary
+   */
+  public void align(){
+    bitsLeft = 0;
+  }
+}
@@ -0,0 +1,89 @@
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Class that packs variable-length codes into bytes (most significant bit first) and writes them to an output stream
+ * @author Esther Shin
+ */
+public class BitWriter{
+
+  /**
+   * the stream that the packed bytes are written to
+   */
+  private OutputStream out;
+
+  /**
+   * stores the bits that have been written but not yet sent to the output stream (the lowest bitCount bits are pending)
+   */
+  private long buffer;
+
+  /**
+   * the number of pending bits stored in the buffer (always less than 8 between calls)
+   */
+  private int bitCount;
+
+  /**
+   * the total number of bits written so far, including the padding added by finish
+   */
+  private long bitsWritten;
+
+  /**
+   * the constructor
+   * @param out  the stream that the packed bytes will be written to
+   */
+  public BitWriter(OutputStream out){
+    this.out = out;
+  }
+
+  /**
+   * Method that writes the lowest length bits of bits, most significant bit first
+   * @param bits  the code to be written
+   * @param length  the number of bits of the code to write (between 0 and 32)
+   */
+  public void writeBits(long bits, int length) throws IOException{
+    buffer = (buffer << length) | (bits & ((1L << length) - 1));
+    bitCount = bitCount + length;
+    bitsWritten = bitsWritten + length;
+    while(bitCount >= 8){
+      bitCount = bitCount - 8;
+      out.write((int)(buffer >>> bitCount));
+    }
+  }
+
+  /**
+   * Method that writes a non-negative number using 7 bits per byte, with the high bit of each byte marking that more bytes follow
+   * @param value  the number to be written
+   */
+  public void writeVarLong(long value) throws IOException{
+    while((value & ~0x7FL) != 0){
+      writeBits((value & 0x7F) | 0x80, 8);
+      value = value >>> 7;
+    }
+    writeBits(value, 8);
+  }
+
+  /**
+   * Method that pads the last partial byte with zero bits and writes it, so that whatever is written next starts on a byte boundary
+   */
+  public void align() throws IOException{
+    if(bitCount > 0){
+      writeBits(0, 8 - bitCount);
+    }
+  }
+
+  /**
+   * Method that pads the last partial byte with zero bits, writes it, and flushes the output stream
+   */
+  public void finish() throws IOException{
+    align();
+    out.flush();
+  }
+
+  /**
+   * Method that returns the number of bits written so far
+   * @return the total number of bits written, including any padding
+   */
+  public long getBitsWritten(){
+    return bitsWritten;
+  }
+}
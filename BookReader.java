@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Class that reads the book (input text file) in fixed-size chunks of characters, giving the same characters as
+ *  Files.lines(...).collect(Collectors.joining(System.lineSeparator())): every "\n", "\r\n" or "\r" becomes System.lineSeparator(),
+ *  except a line terminator at the very end of the file, which is dropped. Memory use does not depend on how long the lines are,
+ *  so files with no line breaks at all can be larger than a String can hold
+ * @author Esther Shin
+ */
+public class BookReader{
+
+  /**
+   * the number of characters read from the file at a time
+   */
+  public static final int CHUNK_SIZE = 64 * 1024;
+
+  /**
+   * the reader that decodes the input file
+   */
+  private Reader reader;
+
+  /**
+   * stores the characters read from the file that have not been handed out yet
+   */
+  private char[] raw = new char[CHUNK_SIZE];
+
+  /**
+   * the position of the next unread character in raw
+   */
+  private int rawPosition;
+
+  /**
+   * the number of characters stored in raw
+   */
+  private int rawCount;
+
+  /**
+   * set when a line terminator has been read but its separator has not been handed out yet (it is dropped at the end of the file)
+   */
+  private boolean pendingSeparator;
+
+  /**
+   * set when the last character read was '\r', so that a following '\n' belongs to the same line terminator
+   */
+  private boolean lastWasCarriageReturn;
+
+  /**
+   * the line separator that replaces each line terminator
+   */
+  private char[] separator = System.lineSeparator().toCharArray();
+
+  /**
+   * the constructor
+   * @param inputFileName  the name of the UTF-8 text file to be read
+   */
+  public BookReader(String inputFileName) throws IOException{
+    reader = Files.newBufferedReader(Paths.get(inputFileName), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Method that reads the next characters of the book
+   * @param chunk  the array that the characters are read into; it must be longer than the line separator
+   * @return the number of characters read, or -1 at the end of the book
+   */
+  public int read(char[] chunk) throws IOException{
+    if(chunk.length <= separator.length){
+      throw new IllegalArgumentException("chunk of " + chunk.length + " characters is too small");
+    }
+    int count = 0;
+    /**
+     * stops while there is still room for a separator and one more character
+     */
+    while(count + separator.length < chunk.length){
+      if(rawPosition == rawCount){
+        rawCount = reader.read(raw);
+        rawPosition = 0;
+        if(rawCount < 0){
+          rawCount = 0;
+          return count > 0 ? count : -1;
+        }
+      }
+      char c = raw[rawPosition];
+      rawPosition = rawPosition + 1;
+      if(c == '\n' && lastWasCarriageReturn == true){
+        lastWasCarriageReturn = false;
+        continue;
+      }
+      lastWasCarriageReturn = c == '\r';
+      if(pendingSeparator == true){
+        System.arraycopy(separator, 0, chunk, count, separator.length);
+        count = count + separator.length;
+        pendingSeparator = false;
+      }
+      if(c == '\n' || c == '\r'){
+        pendingSeparator = true;
+      }
+      else{
+        chunk[count] = c;
+        count = count + 1;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Method that closes the input file
+   */
+  public void close() throws IOException{
+    reader.close();
+  }
+}
@@ -0,0 +1,168 @@
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Class that contains helper methods for turning a Huffman tree into canonical Huffman codes. Canonical codes only depend on the
+ *  code length of each symbol, so a compressed file only has to store how many symbols have each length (and the symbols in order)
+ *  instead of the whole table of encodings. Symbols are identified by the index stored in the leaves of the tree (HuffmanNode.getSymbol)
+ * @author Esther Shin
+ */
+public class CanonicalCode{
+
+  /**
+   * Method that walks the Huffman tree and records the depth (code length) of every leaf. The walk uses an explicit stack instead of
+   *  recursion so that very deep trees built from large alphabets cannot overflow the call stack
+   * @param root  the root of the Huffman tree whose leaves have their symbol index set
+   * @param alphabetSize  the number of symbol indexes that can appear in the tree
+   * @return an array that stores the code length of each symbol index (0 for symbols that are not in the tree)
+   */
+  public static int[] codeLengths(HuffmanNode root, int alphabetSize){
+    /**
+     * lengths: stores the code length of each symbol index
+     */
+    int[] lengths = new int[alphabetSize];
+
+    /**
+     * nodes: stack of the nodes that still have to be visited
+     */
+    ArrayList<HuffmanNode> nodes = new ArrayList<HuffmanNode>();
+
+    /**
+     * depths: stack of the depths of the nodes that still have to be visited
+     */
+    ArrayList<Integer> depths = new ArrayList<Integer>();
+    nodes.add(root);
+    depths.add(0);
+    while(nodes.isEmpty() == false){
+      HuffmanNode node = nodes.remove(nodes.size() - 1);
+      int depth = depths.remove(depths.size() - 1);
+      if(node.getLeft() == null && node.getRight() == null){
+        /**
+         * a tree with a single leaf still needs one bit per symbol so that the symbols can be counted when decoding
+         */
+        lengths[node.getSymbol()] = Math.max(depth, 1);
+      }
+      else{
+        nodes.add(node.getLeft());
+        depths.add(depth + 1);
+        nodes.add(node.getRight());
+        depths.add(depth + 1);
+      }
+    }
+    return lengths;
+  }
+
+  /**
+   * Method that returns the longest code length
+   * @param lengths  the code length of each symbol index
+   * @return the largest value in lengths
+   */
+  public static int maxLength(int[] lengths){
+    int max = 0;
+    for(int i = 0; i < lengths.length; i = i + 1){
+      max = Math.max(max, lengths[i]);
+    }
+    return max;
+  }
+
+  /**
+   * Method that counts how many symbols have each code length
+   * @param lengths  the code length of each symbol index
+   * @param maxLength  the longest code length
+   * @return an array where position L stores the number of symbols whose code is L bits long (position 0 is unused)
+   */
+  public static int[] lengthCounts(int[] lengths, int maxLength){
+    int[] counts = new int[maxLength + 1];
+    for(int i = 0; i < lengths.length; i = i + 1){
+      if(lengths[i] > 0){
+        counts[lengths[i]] = counts[lengths[i]] + 1;
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Method that lists the symbols in canonical order (shortest codes first, ties broken by symbol index) using a counting sort
+   * @param lengths  the code length of each symbol index
+   * @param counts  the number of symbols of each code length
+   * @return the symbol indexes in canonical order
+   */
+  public static int[] canonicalOrder(int[] lengths, int[] counts){
+    /**
+     * next: stores the next free position in the order for each code length
+     */
+    int[] next = new int[counts.length];
+    int total = 0;
+    for(int length = 1; length < counts.length; length = length + 1){
+      next[length] = total;
+      total = total + counts[length];
+    }
+    int[] order = new int[total];
+    for(int i = 0; i < lengths.length; i = i + 1){
+      if(lengths[i] > 0){
+        order[next[lengths[i]]] = i;
+        next[lengths[i]] = next[lengths[i]] + 1;
+      }
+    }
+    return order;
+  }
+
+  /**
+   * Method that assigns the canonical code of every symbol
+   * @param lengths  the code length of each symbol index
+   * @param counts  the number of symbols of each code length
+   * @return an array that stores the code bits of each symbol index (the lowest lengths[i] bits are the code)
+   */
+  public static int[] canonicalCodes(int[] lengths, int[] counts){
+    /**
+     * nextCode: stores the next code to hand out for each code length
+     */
+    long[] nextCode = new long[counts.length];
+    long code = 0;
+    for(int length = 1; length < counts.length; length = length + 1){
+      code = (code + counts[length - 1]) << 1;
+      nextCode[length] = code;
+    }
+    int[] codes = new int[lengths.length];
+    for(int i = 0; i < lengths.length; i = i + 1){
+      if(lengths[i] > 0){
+        codes[i] = (int)nextCode[lengths[i]];
+        nextCode[lengths[i]] = nextCode[lengths[i]] + 1;
+      }
+    }
+    return codes;
+  }
+
+  /**
+   * Method that reads one canonical code from the input bits
+   * @param in  the bits to decode
+   * @param counts  the number of symbols of each code length
+   * @return the position (in canonical order) of the decoded symbol
+   */
+  public static int decodePosition(BitReader in, int[] counts) throws IOException{
+    /**
+     * code: stores the bits read so far
+     */
+    long code = 0;
+
+    /**
+     * first: stores the first canonical code of the current length
+     */
+    long first = 0;
+
+    /**
+     * index: stores the canonical position of the first symbol of the current length
+     */
+    int index = 0;
+    for(int length = 1; length < counts.length; length = length + 1){
+      code = code | in.readBit();
+      if(code - first < counts[length]){
+        return index + (int)(code - first);
+      }
+      index = index + counts[length];
+      first = (first + counts[length]) << 1;
+      code = code << 1;
+    }
+    throw new IOException("invalid Huffman code in compressed data");
+  }
+}
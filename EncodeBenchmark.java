@@ -0,0 +1,147 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Class that compares the speed of the old encode loop of HuffmanCompressor.outputFileAndSavings (a search through the list of
+ *  character/encoding tuples for every character, comparing Strings) with the table lookup in HuffmanCompressor.encode.
+ *  Both loops write into a BufferedWriter around a FileWriter, the same writer outputFileAndSavings uses, so the cost of each call on
+ *  the writer is measured too
+ * @author Esther Shin
+ */
+public class EncodeBenchmark{
+
+  /**
+   * the number of characters of synthetic text to encode
+   */
+  private static final int BOOK_LENGTH = 2000000;
+
+  /**
+   * the number of untimed runs of each loop before the timed runs, so that both loops are compiled by the JIT
+   */
+  private static final int WARMUP_RUNS = 3;
+
+  /**
+   * the number of timed runs of each loop
+   */
+  private static final int TIMED_RUNS = 5;
+
+  /**
+   * Helper method that is a copy of the old encode loop, which searches the tuple list for every character of the book
+   * @param book  the characters to be encoded
+   * @param charEncodingArray  the list of character/encoding tuples
+   * @param writer  the writer that the encodings are written to
+   * @return the number of bits written
+   */
+  private static long scanEncode(char[] book, ArrayList<Tuple> charEncodingArray, Writer writer) throws IOException{
+    long bits = 0;
+    for(int index = 0; index < book.length; index = index + 1){
+      for(int index2 = 0; index2 < charEncodingArray.size(); index2 = index2 + 1){
+        if(((Character)book[index]).toString().equals(charEncodingArray.get(index2).getCharacter().toString())){
+          String encoding = charEncodingArray.get(index2).getCharCode();
+          writer.write(encoding);
+          bits = bits + encoding.length();
+        }
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Helper method that runs one encode loop into a new BufferedWriter on the output file, the way outputFileAndSavings does
+   * @param scan  true for the old tuple scan, false for the table lookup
+   * @param book  the characters to be encoded
+   * @param charEncodingArray  the list of character/encoding tuples
+   * @param codeTable  the encodings indexed by character
+   * @param output  the file that the encodings are written to
+   * @return the number of bits written
+   */
+  private static long encodeToFile(boolean scan, char[] book, ArrayList<Tuple> charEncodingArray, char[][] codeTable, File output)
+    throws IOException{
+    BufferedWriter writer = new BufferedWriter(new FileWriter(output));
+    long bits;
+    if(scan == true){
+      bits = scanEncode(book, charEncodingArray, writer);
+    }
+    else{
+      bits = HuffmanCompressor.encode(book, book.length, codeTable, writer);
+    }
+    writer.close();
+    return bits;
+  }
+
+  /**
+   * Helper method that builds English-like synthetic text: words of skewed letters separated by spaces and some punctuation
+   * @return the synthetic text
+   */
+  private static String syntheticBook(){
+    Random random = new Random(42);
+    String letters = "etaoinshrdlcumwfgypbvkjxqzETAOINSHRDLCUMWFGYPBVKJXQZ";
+    StringBuilder builder = new StringBuilder(BOOK_LENGTH);
+    while(builder.length() < BOOK_LENGTH){
+      int wordLength = 1 + random.nextInt(9);
+      for(int i = 0; i < wordLength; i = i + 1){
+        /**
+         * squaring a uniform number makes the letters early in the list far more common, like in English
+         */
+        double skew = random.nextDouble();
+        builder.append(letters.charAt((int)(skew * skew * letters.length())));
+      }
+      int punctuation = random.nextInt(20);
+      builder.append(punctuation == 0 ? ". " : punctuation == 1 ? ", " : " ");
+    }
+    builder.setLength(BOOK_LENGTH);
+    return builder.toString();
+  }
+
+  /**
+   * main method: builds the code for the synthetic text, then times both encode loops and prints their throughput
+   */
+  public static void main(String[] args) throws IOException{
+    char[] book = syntheticBook().toCharArray();
+    File input = File.createTempFile("encodeBenchmark", ".txt");
+    input.deleteOnExit();
+    BufferedWriter writer = new BufferedWriter(new FileWriter(input));
+    writer.write(book);
+    writer.close();
+    HuffmanCompressor.characterEncoding(HuffmanCompressor.huffmanTree(HuffmanCompressor.huffmanNodeCreator(input.getPath())));
+
+    char[][] codeTable = HuffmanCompressor.codeTable();
+    ArrayList<Tuple> charEncodingArray = new ArrayList<Tuple>();
+    for(int c = 0; c < codeTable.length; c = c + 1){
+      if(codeTable[c] != null){
+        charEncodingArray.add(new Tuple((char)c, new String(codeTable[c])));
+      }
+    }
+
+    File output = File.createTempFile("encodeBenchmark", ".out");
+    output.deleteOnExit();
+    long scanBits = 0;
+    long tableBits = 0;
+    for(int run = 0; run < WARMUP_RUNS; run = run + 1){
+      scanBits = encodeToFile(true, book, charEncodingArray, codeTable, output);
+      tableBits = encodeToFile(false, book, charEncodingArray, codeTable, output);
+    }
+    if(scanBits != tableBits){
+      throw new IllegalStateException("loops disagree: " + scanBits + " bits vs " + tableBits + " bits");
+    }
+    long scanNanos = Long.MAX_VALUE;
+    long tableNanos = Long.MAX_VALUE;
+    for(int run = 0; run < TIMED_RUNS; run = run + 1){
+      long start = System.nanoTime();
+      encodeToFile(true, book, charEncodingArray, codeTable, output);
+      scanNanos = Math.min(scanNanos, System.nanoTime() - start);
+      start = System.nanoTime();
+      encodeToFile(false, book, charEncodingArray, codeTable, output);
+      tableNanos = Math.min(tableNanos, System.nanoTime() - start);
+    }
+    System.out.println("alphabet size: " + charEncodingArray.size() + ", characters: " + book.length + ", bits: " + tableBits);
+    System.out.printf("tuple scan:   %8.1f ms (%.1f MB/s)%n", scanNanos / 1e6, book.length / (scanNanos / 1e3));
+    System.out.printf("table lookup: %8.1f ms (%.1f MB/s)%n", tableNanos / 1e6, book.length / (tableNanos / 1e3));
+    System.out.printf("speedup:      %8.1fx%n", (double)scanNanos / tableNanos);
+  }
+}
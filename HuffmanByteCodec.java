@@ -0,0 +1,413 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Class that produces an in-memory Huffman encoding of arbitrary bytes, so that data does not have to go through files and does not
+ *  have to be valid text. Each block is written as the block length, the block type, and then either the raw bytes, or the canonical
+ *  code header (longest code length, how many byte values have each code length, and the byte values in canonical order) followed by
+ *  the encoded bits, or just the encoded bits when the block reuses the code of the previous Huffman block. Every block ends on a byte
+ *  boundary. The encoder picks whichever of the three is smallest, header included.
+ *
+ * Because a block can reuse the previous code, a codec remembers the last code it wrote and the last code it read. The whole-array
+ *  methods compress(byte[]) and decompress(byte[]) forget them first, so each array stands on its own. compressSplit also places block
+ *  boundaries where the byte statistics change.
+ *
+ * A codec keeps its histogram and symbol arrays between calls so that a long-running process (see HuffmanDaemon) does not allocate
+ *  them again for every request. Because of that, one codec must not be used by several threads at the same time
+ * @author Esther Shin
+ */
+public class HuffmanByteCodec{
+
+  /**
+   * the longest code length allowed; deeper trees are flattened and rebuilt
+   */
+  public static final int MAX_CODE_LENGTH = 15;
+
+  /**
+   * block type of a block whose bytes are stored as they are
+   */
+  public static final int RAW_BLOCK = 0;
+
+  /**
+   * block type of a block that is stored with its own canonical Huffman code
+   */
+  public static final int HUFFMAN_BLOCK = 1;
+
+  /**
+   * block type of a block that is encoded with the code of the previous Huffman block
+   */
+  public static final int REUSE_BLOCK = 2;
+
+  /**
+   * the number of bytes compressSplit looks at at a time when searching for a change in the statistics
+   */
+  public static final int SPLIT_WINDOW = 4096;
+
+  /**
+   * compressSplit starts a new block when the distance (sum of absolute differences of the byte frequencies, from 0 to 2) between
+   *  a window and the block so far is larger than SPLIT_DISTANCE_TENTHS / 10
+   */
+  public static final int SPLIT_DISTANCE_TENTHS = 6;
+
+  /**
+   * the largest block length decompress accepts; longer blocks are refused before anything is allocated for them
+   */
+  private int maxBlockLength = Integer.MAX_VALUE - 8;
+
+  /**
+   * stores the number of occurrences of each byte value in the block being encoded
+   */
+  private int[] counts = new int[256];
+
+  /**
+   * stores the number of occurrences of each byte value in the window being checked by compressSplit
+   */
+  private int[] windowCounts = new int[256];
+
+  /**
+   * stores the code length of each byte value in the block being encoded
+   */
+  private int[] lengths;
+
+  /**
+   * stores the code lengths of the last Huffman block written, or null if there is none
+   */
+  private int[] previousLengths;
+
+  /**
+   * stores the codes of the last Huffman block written
+   */
+  private int[] previousCodes;
+
+  /**
+   * stores the number of byte values of each code length of the last Huffman block read, or null if there is none
+   */
+  private int[] decodeCounts;
+
+  /**
+   * stores the byte values in canonical order for the last Huffman block read
+   */
+  private int[] order = new int[256];
+
+  /**
+   * Method that compresses a whole array into a new array that does not depend on anything compressed before
+   * @param data  the bytes to be compressed
+   * @return the compressed block
+   */
+  public byte[] compress(byte[] data) throws IOException{
+    reset();
+    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+    compress(data, 0, data.length, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Method that decompresses an array produced by compress(byte[])
+   * @param data  the compressed block
+   * @return the original bytes
+   */
+  public byte[] decompress(byte[] data) throws IOException{
+    reset();
+
+    /**
+     * every byte of a block takes at least one bit, so a block can never be longer than 8 times the input
+     */
+    return decompress(new ByteArrayInputStream(data), Math.min(maxBlockLength, 8L * data.length));
+  }
+
+  /**
+   * Sets the largest block length decompress accepts, so that untrusted input cannot make it allocate unbounded memory
+   * @param maxBlockLength  the largest number of bytes a decoded block may have
+   */
+  public void setMaxBlockLength(int maxBlockLength){
+    this.maxBlockLength = maxBlockLength;
+  }
+
+  /**
+   * Method that forgets the previous codes, so that the next block written or read cannot reuse them
+   */
+  public void reset(){
+    previousLengths = null;
+    previousCodes = null;
+    decodeCounts = null;
+  }
+
+  /**
+   * Method that writes the given bytes to out as one block
+   * @param data  the array that holds the bytes to be compressed
+   * @param offset  the position of the first byte to be compressed
+   * @param length  the number of bytes to be compressed
+   * @param out  the stream that the block is written to
+   */
+  public void compress(byte[] data, int offset, int length, OutputStream out) throws IOException{
+    clear(counts);
+    for(int i = offset; i < offset + length; i = i + 1){
+      counts[data[i] & 0xFF] = counts[data[i] & 0xFF] + 1;
+    }
+    writeBlock(data, offset, length, out);
+  }
+
+  /**
+   * Method that writes the given bytes to out as one or more blocks, starting a new block wherever the byte statistics of the next
+   *  SPLIT_WINDOW bytes are far from those of the block so far. A last window shorter than SPLIT_WINDOW is never split off. Each window
+   *  is only counted once, so this costs little more than compress
+   * @param data  the array that holds the bytes to be compressed
+   * @param offset  the position of the first byte to be compressed
+   * @param length  the number of bytes to be compressed
+   * @param out  the stream that the blocks are written to
+   */
+  public void compressSplit(byte[] data, int offset, int length, OutputStream out) throws IOException{
+    clear(counts);
+
+    /**
+     * blockStart: the position of the first byte of the block being collected
+     */
+    int blockStart = offset;
+
+    /**
+     * blockLength: the number of bytes in the block being collected
+     */
+    int blockLength = 0;
+    for(int window = offset; window < offset + length; window = window + SPLIT_WINDOW){
+      int windowLength = Math.min(SPLIT_WINDOW, offset + length - window);
+      clear(windowCounts);
+      for(int i = window; i < window + windowLength; i = i + 1){
+        windowCounts[data[i] & 0xFF] = windowCounts[data[i] & 0xFF] + 1;
+      }
+      /**
+       * a short last window has too few bytes for its frequencies to be compared fairly, so it always joins the block so far
+       */
+      if(blockLength > 0 && windowLength == SPLIT_WINDOW
+         && statisticsChanged(counts, blockLength, windowCounts, windowLength)){
+        writeBlock(data, blockStart, blockLength, out);
+        clear(counts);
+        blockStart = window;
+        blockLength = 0;
+      }
+      for(int i = 0; i < 256; i = i + 1){
+        counts[i] = counts[i] + windowCounts[i];
+      }
+      blockLength = blockLength + windowLength;
+    }
+    if(blockLength > 0){
+      writeBlock(data, blockStart, blockLength, out);
+    }
+  }
+
+  /**
+   * Method that reads one block written by compress or compressSplit and returns the original bytes
+   * @param in  the stream that the block is read from
+   * @return the decoded bytes of the block
+   */
+  public byte[] decompress(InputStream in) throws IOException{
+    return decompress(in, maxBlockLength);
+  }
+
+  /**
+   * Helper method that reads one block, refusing it before allocating anything if it is longer than limit
+   * @param in  the stream that the block is read from
+   * @param limit  the largest number of bytes the block may have
+   * @return the decoded bytes of the block
+   */
+  private byte[] decompress(InputStream in, long limit) throws IOException{
+    BitReader bits = new BitReader(in);
+    long length = bits.readVarLong();
+    if(length < 0 || length > limit){
+      throw new IOException("block of " + length + " bytes is larger than the limit of " + limit);
+    }
+    byte[] result = new byte[(int)length];
+    int type = (int)bits.readBits(8);
+    if(type == RAW_BLOCK){
+      for(int i = 0; i < result.length; i = i + 1){
+        result[i] = (byte)bits.readBits(8);
+      }
+      return result;
+    }
+    if(type == HUFFMAN_BLOCK){
+      readHeader(bits);
+    }
+    else if(type != REUSE_BLOCK){
+      throw new IOException("unknown block type " + type);
+    }
+    else if(decodeCounts == null){
+      throw new IOException("block reuses a code but no code has been read");
+    }
+    for(int i = 0; i < result.length; i = i + 1){
+      result[i] = (byte)order[CanonicalCode.decodePosition(bits, decodeCounts)];
+    }
+    return result;
+  }
+
+  /**
+   * Helper method that writes one block using the current counts, as raw bytes, with the previous code, or with a new code,
+   *  whichever is smallest
+   * @param data  the array that holds the bytes of the block
+   * @param offset  the position of the first byte of the block
+   * @param length  the number of bytes in the block
+   * @param out  the stream that the block is written to
+   */
+  private void writeBlock(byte[] data, int offset, int length, OutputStream out) throws IOException{
+    BitWriter bits = new BitWriter(out);
+    bits.writeVarLong(length);
+    if(length == 0){
+      bits.writeBits(RAW_BLOCK, 8);
+      bits.align();
+      return;
+    }
+    buildCodeLengths();
+    int maxLength = CanonicalCode.maxLength(lengths);
+    int[] headerCounts = CanonicalCode.lengthCounts(lengths, maxLength);
+    int[] headerOrder = CanonicalCode.canonicalOrder(lengths, headerCounts);
+
+    /**
+     * newBits, reuseBits, rawBits: the size of the block (after its type) when stored with a new code, with the previous code, or raw
+     */
+    long newBits = 8 + 8 * headerOrder.length + encodedBits(lengths);
+    for(int codeLength = 1; codeLength <= maxLength; codeLength = codeLength + 1){
+      newBits = newBits + (headerCounts[codeLength] < 128 ? 8 : 16);
+    }
+    long reuseBits = previousLengths == null ? Long.MAX_VALUE : encodedBits(previousLengths);
+    long rawBits = 8L * length;
+
+    if(rawBits <= newBits && rawBits <= reuseBits){
+      bits.writeBits(RAW_BLOCK, 8);
+      for(int i = offset; i < offset + length; i = i + 1){
+        bits.writeBits(data[i], 8);
+      }
+    }
+    else if(reuseBits <= newBits){
+      bits.writeBits(REUSE_BLOCK, 8);
+      writeCodes(bits, data, offset, length, previousCodes, previousLengths);
+    }
+    else{
+      int[] codes = CanonicalCode.canonicalCodes(lengths, headerCounts);
+      bits.writeBits(HUFFMAN_BLOCK, 8);
+      bits.writeBits(maxLength, 8);
+      for(int codeLength = 1; codeLength <= maxLength; codeLength = codeLength + 1){
+        bits.writeVarLong(headerCounts[codeLength]);
+      }
+      for(int i = 0; i < headerOrder.length; i = i + 1){
+        bits.writeBits(headerOrder[i], 8);
+      }
+      writeCodes(bits, data, offset, length, codes, lengths);
+      previousLengths = lengths;
+      previousCodes = codes;
+    }
+    bits.align();
+  }
+
+  /**
+   * Helper method that writes the code of every byte of a block
+   * @param bits  the bits that the codes are written to
+   * @param data  the array that holds the bytes of the block
+   * @param offset  the position of the first byte of the block
+   * @param length  the number of bytes in the block
+   * @param codes  the code of each byte value
+   * @param codeLengths  the code length of each byte value
+   */
+  private static void writeCodes(BitWriter bits, byte[] data, int offset, int length, int[] codes, int[] codeLengths) throws IOException{
+    for(int i = offset; i < offset + length; i = i + 1){
+      bits.writeBits(codes[data[i] & 0xFF], codeLengths[data[i] & 0xFF]);
+    }
+  }
+
+  /**
+   * Helper method that returns how many bits the current counts take with the given code lengths
+   * @param codeLengths  the code length of each byte value
+   * @return the number of bits, or Long.MAX_VALUE if a byte value that occurs has no code
+   */
+  private long encodedBits(int[] codeLengths){
+    long total = 0;
+    for(int i = 0; i < 256; i = i + 1){
+      if(counts[i] > 0 && codeLengths[i] == 0){
+        return Long.MAX_VALUE;
+      }
+      total = total + (long)counts[i] * codeLengths[i];
+    }
+    return total;
+  }
+
+  /**
+   * Helper method that reads the code header of a Huffman block and keeps it so that later blocks can reuse it
+   * @param bits  the bits that the header is read from
+   */
+  private void readHeader(BitReader bits) throws IOException{
+    int maxLength = (int)bits.readBits(8);
+    if(maxLength < 1 || maxLength > MAX_CODE_LENGTH){
+      throw new IOException("invalid code length " + maxLength + " in block header");
+    }
+    int[] headerCounts = new int[maxLength + 1];
+    int symbols = 0;
+    for(int codeLength = 1; codeLength <= maxLength; codeLength = codeLength + 1){
+      headerCounts[codeLength] = (int)bits.readVarLong();
+      symbols = symbols + headerCounts[codeLength];
+    }
+    if(symbols < 1 || symbols > 256){
+      throw new IOException("invalid symbol count " + symbols + " in block header");
+    }
+    for(int i = 0; i < symbols; i = i + 1){
+      order[i] = (int)bits.readBits(8);
+    }
+    decodeCounts = headerCounts;
+  }
+
+  /**
+   * Helper method that checks whether a window's byte frequencies are far from those of the block so far. The frequencies are
+   *  compared as fractions of their totals without dividing: |a/aTotal - b/bTotal| = |a*bTotal - b*aTotal| / (aTotal*bTotal)
+   * @param block  the counts of the block so far
+   * @param blockTotal  the number of bytes in the block so far
+   * @param window  the counts of the window
+   * @param windowTotal  the number of bytes in the window
+   * @return true if the distance is larger than SPLIT_DISTANCE_TENTHS / 10
+   */
+  private static boolean statisticsChanged(int[] block, long blockTotal, int[] window, long windowTotal){
+    long distance = 0;
+    for(int i = 0; i < 256; i = i + 1){
+      distance = distance + Math.abs(block[i] * windowTotal - window[i] * blockTotal);
+    }
+    return distance * 10 > SPLIT_DISTANCE_TENTHS * blockTotal * windowTotal;
+  }
+
+  /**
+   * Helper method that sets every count to 0
+   * @param array  the counts to be cleared
+   */
+  private static void clear(int[] array){
+    for(int i = 0; i < array.length; i = i + 1){
+      array[i] = 0;
+    }
+  }
+
+  /**
+   * Helper method that builds the Huffman tree for the current counts and stores the code lengths in lengths. If the tree is deeper
+   *  than MAX_CODE_LENGTH, the counts are halved (keeping every used byte value at least 1) and the tree is rebuilt
+   */
+  private void buildCodeLengths(){
+    /**
+     * weights: stores the frequencies used to build the tree, which start as the counts and are flattened if the tree is too deep
+     */
+    int[] weights = counts.clone();
+    while(true){
+      Project2Sort heap = new Project2Sort();
+      for(int i = 0; i < 256; i = i + 1){
+        if(weights[i] > 0){
+          HuffmanNode leaf = new HuffmanNode(null, (long)weights[i]);
+          leaf.setSymbol(i);
+          heap.insert(leaf);
+        }
+      }
+      lengths = CanonicalCode.codeLengths(HuffmanCompressor.huffmanTree(heap), 256);
+      if(CanonicalCode.maxLength(lengths) <= MAX_CODE_LENGTH){
+        return;
+      }
+      for(int i = 0; i < 256; i = i + 1){
+        if(weights[i] > 0){
+          weights[i] = (weights[i] >> 1) | 1;
+        }
+      }
+    }
+  }
+}
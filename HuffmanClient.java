@@ -0,0 +1,120 @@
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+/**
+ * Class that sends compress and decompress requests to a running HuffmanDaemon over its Unix domain socket. One client keeps one
+ *  connection open, so it can send many requests without connecting again
+ * @author Esther Shin
+ */
+public class HuffmanClient{
+
+  /**
+   * the connection to the daemon
+   */
+  private SocketChannel channel;
+
+  /**
+   * the constructor, which connects to the daemon
+   * @param socketPath  the path of the Unix domain socket the daemon listens on
+   */
+  public HuffmanClient(String socketPath) throws IOException{
+    channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+    channel.connect(UnixDomainSocketAddress.of(Paths.get(socketPath)));
+  }
+
+  /**
+   * Method that asks the daemon to compress data
+   * @param mode  HuffmanDaemon.BYTE_MODE or HuffmanDaemon.WORD_MODE
+   * @param data  the bytes to be compressed
+   * @return the compressed bytes
+   */
+  public byte[] compress(byte mode, byte[] data) throws IOException{
+    return request(HuffmanDaemon.COMPRESS, mode, data);
+  }
+
+  /**
+   * Method that asks the daemon to decompress data
+   * @param mode  the mode the data was compressed with
+   * @param data  the compressed bytes
+   * @return the original bytes
+   */
+  public byte[] decompress(byte mode, byte[] data) throws IOException{
+    return request(HuffmanDaemon.DECOMPRESS, mode, data);
+  }
+
+  /**
+   * Method that closes the connection to the daemon
+   */
+  public void close() throws IOException{
+    channel.close();
+  }
+
+  /**
+   * Helper method that sends one request frame and waits for its response frame
+   * @param operation  HuffmanDaemon.COMPRESS or HuffmanDaemon.DECOMPRESS
+   * @param mode  HuffmanDaemon.BYTE_MODE or HuffmanDaemon.WORD_MODE
+   * @param payload  the data of the request
+   * @return the payload of the response
+   */
+  private byte[] request(byte operation, byte mode, byte[] payload) throws IOException{
+    ByteBuffer header = ByteBuffer.allocate(HuffmanDaemon.REQUEST_HEADER_SIZE);
+    header.put(operation);
+    header.put(mode);
+    header.putInt(payload.length);
+    header.flip();
+    ByteBuffer[] frame = {header, ByteBuffer.wrap(payload)};
+    while(header.hasRemaining() || frame[1].hasRemaining()){
+      channel.write(frame);
+    }
+    ByteBuffer responseHeader = ByteBuffer.allocate(5);
+    readFully(responseHeader);
+    byte status = responseHeader.get(0);
+    ByteBuffer response = ByteBuffer.allocate(responseHeader.getInt(1));
+    readFully(response);
+    if(status != HuffmanDaemon.OK){
+      throw new IOException("daemon error: " + new String(response.array(), StandardCharsets.UTF_8));
+    }
+    return response.array();
+  }
+
+  /**
+   * Helper method that reads from the connection until the buffer is full
+   * @param buffer  the buffer to be filled
+   */
+  private void readFully(ByteBuffer buffer) throws IOException{
+    while(buffer.hasRemaining()){
+      if(channel.read(buffer) < 0){
+        throw new IOException("daemon closed the connection");
+      }
+    }
+  }
+
+  /**
+   * main method: compresses or decompresses standard input to standard output through the daemon.
+   *  Arguments: compress|decompress [word] [socketPath]
+   */
+  public static void main(String[] args) throws IOException{
+    if(args.length < 1 || (args[0].equals("compress") == false && args[0].equals("decompress") == false)){
+      System.err.println("usage: java HuffmanClient compress|decompress [word] [socketPath]");
+      System.exit(2);
+    }
+    int next = 1;
+    byte mode = HuffmanDaemon.BYTE_MODE;
+    if(args.length > next && args[next].equals("word")){
+      mode = HuffmanDaemon.WORD_MODE;
+      next = next + 1;
+    }
+    String socket = args.length > next ? args[next] : HuffmanDaemon.DEFAULT_SOCKET;
+    HuffmanClient client = new HuffmanClient(socket);
+    byte[] input = System.in.readAllBytes();
+    byte[] output = args[0].equals("decompress") ? client.decompress(mode, input) : client.compress(mode, input);
+    System.out.write(output);
+    System.out.flush();
+    client.close();
+  }
+}
@@ -21,6 +21,12 @@ import java.io.Writer;
  */
 public class HuffmanCompressor{
   
+  /**
+   * the number of encoding characters collected by encode before they are handed to the writer in one call. Every code fits:
+   *  with long frequencies a Huffman code cannot be longer than about 90 bits
+   */
+  private static final int ENCODE_BUFFER_SIZE = 8192;
+  
   /**
    * stores the min-on-top heap array (that stores Huffman nodes) that will be used to create the final Huffman tree
    */
@@ -29,7 +35,7 @@ public class HuffmanCompressor{
   /**
    * a hashMap storing pairs of a character (that exists in the input file) and its corresponding frequency of occurrences
    */
-  private static HashMap<Character, Integer> map = new HashMap<Character, Integer>();
+  private static HashMap<Character, Long> map = new HashMap<Character, Long>();
   
   /**
    * an arrayList of tuples in which each tuple contains a character (that exists in the input file) and its corresponding encoding
@@ -64,20 +70,63 @@ public class HuffmanCompressor{
     int numberOfKeys = 0;
     
     /**
-     * book: stores the input file as a String
+     * book: reads the input file in fixed-size chunks, so that the book never has to fit in memory
+     */
+    BookReader book = new BookReader(inputFileName);
+    
+    /**
+     * chunk: stores the part of the book being counted
+     */
+    char[] chunk = new char[BookReader.CHUNK_SIZE];
+    
+    /**
+     * counts: stores the frequency of every character, indexed by the character, while the book is being read
+     */
+    long[] counts = new long[Character.MAX_VALUE + 1];
+    
+    /**
+     * firstSeen: stores the characters in the order of their first occurrence in the book, so that they go into the hashMap in the
+     *  same order as when the book was read as one String (the order of keys that share a bucket, and so the way frequency ties are
+     *  broken, depends on it)
+     */
+    char[] firstSeen = new char[Character.MAX_VALUE + 1];
+    
+    /**
+     * numberSeen: the number of characters stored in firstSeen
      */
-    String book = Files.lines(Paths.get(inputFileName), StandardCharsets.UTF_8).collect(Collectors.joining(System.lineSeparator()));
+    int numberSeen = 0;
     
     /**
-     * Goes through the entire input file String (book) and puts existing characters and their corresponding frequencies into the hashMap 
+     * chunkLength: the number of characters stored in chunk
      */
-    for(int index = 0; index < book.length(); index = index + 1){
-      key = book.charAt(index);
+    int chunkLength = book.read(chunk);
+    
+    /**
+     * Goes through the entire input file (book) and counts each character. Lines are joined with System.lineSeparator() and the 
+     *  last line has no separator after it
+     */
+    while(chunkLength != -1){
+      for(int index = 0; index < chunkLength; index = index + 1){
+        if(counts[chunk[index]] == 0){
+          firstSeen[numberSeen] = chunk[index];
+          numberSeen = numberSeen + 1;
+        }
+        counts[chunk[index]] = counts[chunk[index]] + 1;
+      }
+      chunkLength = book.read(chunk);
+    }
+    book.close();
+    
+    /**
+     * Puts existing characters and their corresponding frequencies into the hashMap, in the order they first occur in the book
+     */
+    for(int index = 0; index < numberSeen; index = index + 1){
+      key = firstSeen[index];
       if(map.get(key) != null){
-        map.put(key, map.getOrDefault(key, 0) + 1);//replace 
+        map.put(key, map.get(key) + counts[key]);//replace 
       }
       else{
-        map.put(key, 1);
+        map.put(key, counts[key]);
         numberOfKeys = numberOfKeys + 1;
       }
     }
@@ -96,7 +145,7 @@ public class HuffmanCompressor{
      */
     while(mapIterator.hasNext() == true){
       Map.Entry mapStuff = (Map.Entry)mapIterator.next();
-      huffmanNodeArray.add(new HuffmanNode((Character)mapStuff.getKey(), (Integer)mapStuff.getValue()));//, null, null));
+      huffmanNodeArray.add(new HuffmanNode((Character)mapStuff.getKey(), (Long)mapStuff.getValue()));//, null, null));
     }
     
     /**
@@ -127,17 +176,17 @@ public class HuffmanCompressor{
     /**
      * finalFrequency: stores the combined frequency of the smallest frequency node and the second smallest frequency node
      */
-    Integer finalFrequency;
+    Long finalFrequency;
     
     /**
      * smallestFrequency: stores the frequency value of the HuffmanNode with the smallest frequency
      */
-    Integer smallestFrequency;
+    Long smallestFrequency;
     
     /**
      * smallest2Frequency: stores the frequency value of the HuffmanNode with the second smallest frequency
      */
-    Integer smallest2Frequency;
+    Long smallest2Frequency;
     smallest = inputMinHeap.getNode(0);
     smallestFrequency = inputMinHeap.getFreq(0);
     inputMinHeap.removeMin();
@@ -251,56 +300,55 @@ public class HuffmanCompressor{
     */
    public static void outputFileAndSavings(String inputFileName, String outputFileName) throws IOException{
      /**
-      * book: stores the input file as a String
+      * book: reads the input file in fixed-size chunks, so that the book never has to fit in memory
       */
-     String book = Files.lines(Paths.get(inputFileName), StandardCharsets.UTF_8).collect(Collectors.joining(System.lineSeparator()));
+     BookReader book = new BookReader(inputFileName);
      
      /**
-      * bookFinal: stores the final Huffman encoding of the input file in the form of a String 
+      * chunk: stores the part of the book being encoded
       */
-     String bookFinal = "";
+     char[] chunk = new char[BookReader.CHUNK_SIZE];
+     
+     /**
+      * writer: writes the Huffman encoding of the book into an output file of outputFileName as it is produced
+      */
+     BufferedWriter writer = new BufferedWriter(new FileWriter(outputFileName));
      
       /**
-      * bookLength: stores the length of the input file String
+      * bookLength: stores the number of characters in the book
       */
-     int bookLength = book.length();
+     long bookLength = 0;
      
      /**
-      * encoding: stores the encoding of a certain character 
+      * finalBits: stores the number of bits in the output file 
       */
-     String encoding;
+     long finalBits = 0;
+     
      /**
-      * Goes through the entire book (input file string), and at each character of the book, searches the entire charEncodingArray for the same character.
-      *  If the character in the book matches a character in the charEncoding array, put that character's encoding into the final Huffman encoding of the input file
+      * codeTable: stores the encoding of every character, indexed by the character itself, so that each character of the book is
+      *  encoded with one array lookup instead of a search through the charEncodingArray
       */
-     for(int index = 0; index < book.length(); index = index + 1){
-       for(int index2 = 0; index2 < charEncodingArray.size(); index2 = index2 + 1){
-         if(((Character)book.charAt(index)).toString().equals(charEncodingArray.get(index2).getCharacter().toString())){
-           encoding = charEncodingArray.get(index2).getCharCode();
-           bookFinal = bookFinal + encoding;
-         }
-       }
-     }
+     char[][] codeTable = codeTable();
      /**
-      * writer: writes the bookFinal into an output file of outputFileName 
+      * Goes through the entire book (input file) and writes the encoding of each character into the output file
       */
-     BufferedWriter writer = new BufferedWriter(new FileWriter(outputFileName));
-     writer.write(bookFinal);
+     int chunkLength = book.read(chunk);
+     while(chunkLength != -1){
+       finalBits = finalBits + encode(chunk, chunkLength, codeTable, writer);
+       bookLength = bookLength + chunkLength;
+       chunkLength = book.read(chunk);
+     }
+     book.close();
      writer.close();
      /**
       * originalBits: stores the number of bits in the original input file 
       */
-     int originalBits = bookLength*8;
-     
-     /**
-      * finalBits: stores the number of bits in the output file 
-      */
-     int finalBits = bookFinal.length();
+     long originalBits = bookLength*8;
      
      /**
      * savings: stores the space savings the encoding has achieved
      */
-     int savings;
+     long savings;
      savings = originalBits - finalBits;
      
      /**
@@ -321,7 +369,7 @@ public class HuffmanCompressor{
        while(mapIterator.hasNext() == true){
          Map.Entry mapStuff = (Map.Entry)mapIterator.next();
          if(charEncodingArray.get(index).getCharacter().equals(mapStuff.getKey())){
-           triples.add(new Triple((Character)mapStuff.getKey(), (Integer)mapStuff.getValue(), charEncodingArray.get(index).getCharCode()));
+           triples.add(new Triple((Character)mapStuff.getKey(), (Long)mapStuff.getValue(), charEncodingArray.get(index).getCharCode()));
          }
        }
      }
@@ -340,6 +388,60 @@ public class HuffmanCompressor{
      writer2.close();
    }
    
+   /**
+    * Helper method that turns the charEncodingArray into a table indexed by character, built once before the book is encoded
+    * @return an array of size 65536 where position c stores the encoding of character c as an array of '0'/'1' characters, 
+    *  or null if c has no encoding
+    */
+   public static char[][] codeTable(){
+     char[][] codeTable = new char[Character.MAX_VALUE + 1][];
+     for(int index = 0; index < charEncodingArray.size(); index = index + 1){
+       codeTable[charEncodingArray.get(index).getCharacter()] = charEncodingArray.get(index).getCharCode().toCharArray();
+     }
+     return codeTable;
+   }
+   
+   /**
+    * Helper method that writes the encoding of every character of a piece of the book. The encodings are copied into a local
+    *  buffer that is handed to the writer only when it is full, because every call on a BufferedWriter takes a lock and costs far
+    *  more than copying a few characters
+    * @param piece  the array that holds the characters to be encoded
+    * @param length  the number of characters of piece to encode
+    * @param codeTable  the encodings indexed by character (see codeTable)
+    * @param writer  the writer that the encodings are written to
+    * @return the number of bits written
+    */
+   public static long encode(char[] piece, int length, char[][] codeTable, Writer writer) throws IOException{
+     /**
+      * bits: stores the number of bits written so far
+      */
+     long bits = 0;
+     
+     /**
+      * output: stores the encodings that have not been handed to the writer yet
+      */
+     char[] output = new char[ENCODE_BUFFER_SIZE];
+     
+     /**
+      * outputLength: the number of characters stored in output
+      */
+     int outputLength = 0;
+     for(int index = 0; index < length; index = index + 1){
+       char[] code = codeTable[piece[index]];
+       if(code != null){
+         if(outputLength + code.length > output.length){
+           writer.write(output, 0, outputLength);
+           outputLength = 0;
+         }
+         System.arraycopy(code, 0, output, outputLength, code.length);
+         outputLength = outputLength + code.length;
+         bits = bits + code.length;
+       }
+     }
+     writer.write(output, 0, outputLength);
+     return bits;
+   }
+   
    /**
    * main method: starts the program by creating a new HuffmanCompressor and inputting the inputFileName I want to test 
    *  and the outputFileName I want as a result
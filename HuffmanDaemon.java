@@ -0,0 +1,375 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Class that runs the compressor as a long-lived local process, so that many small requests do not each pay for starting a JVM and
+ *  warming up the JIT. The daemon listens on a Unix domain socket and serves every connection from a single NIO selector thread, which
+ *  also lets it keep one HuffmanByteCodec (and its arrays) for all requests.
+ *
+ * Every request and response is one frame. A request is: operation (1 byte), mode (1 byte), payload length (4 bytes), payload.
+ *  A response is: status (1 byte), payload length (4 bytes), payload, where the payload of an error response is the UTF-8 message.
+ *  A connection can send any number of requests and gets the responses back in the same order. Neither a request nor its decoded
+ *  result may be larger than MAX_PAYLOAD; a request that breaks this gets an error response. HuffmanClient is the matching client
+ * @author Esther Shin
+ */
+public class HuffmanDaemon{
+
+  /**
+   * operation that compresses the payload
+   */
+  public static final byte COMPRESS = 1;
+
+  /**
+   * operation that decompresses the payload
+   */
+  public static final byte DECOMPRESS = 2;
+
+  /**
+   * mode that treats the payload as arbitrary bytes (HuffmanByteCodec)
+   */
+  public static final byte BYTE_MODE = 0;
+
+  /**
+   * mode that treats the payload as UTF-8 text and uses the word-level alphabet (HuffmanWordCompressor)
+   */
+  public static final byte WORD_MODE = 1;
+
+  /**
+   * response status of a request that succeeded
+   */
+  public static final byte OK = 0;
+
+  /**
+   * response status of a request that failed
+   */
+  public static final byte ERROR = 1;
+
+  /**
+   * the size of the frame header of a request (operation, mode, payload length)
+   */
+  public static final int REQUEST_HEADER_SIZE = 6;
+
+  /**
+   * the largest payload the daemon accepts, so that a bad length cannot make it allocate unbounded memory
+   */
+  public static final int MAX_PAYLOAD = 64 * 1024 * 1024;
+
+  /**
+   * the socket path used when none is given on the command line
+   */
+  public static final String DEFAULT_SOCKET = Paths.get(System.getProperty("java.io.tmpdir"), "huffmanCompressor.sock").toString();
+
+  /**
+   * the codec shared by all requests; it is only used from the selector thread
+   */
+  private HuffmanByteCodec codec = new HuffmanByteCodec();
+
+  /**
+   * the path of the socket the daemon listens on
+   */
+  private Path socketPath;
+
+  /**
+   * Class that stores the state of one client connection
+   */
+  private static class Connection{
+
+    /**
+     * stores the frame header of the request being read
+     */
+    ByteBuffer header = ByteBuffer.allocate(REQUEST_HEADER_SIZE);
+
+    /**
+     * stores the payload of the request being read, or null while the header is still being read
+     */
+    ByteBuffer payload;
+
+    /**
+     * stores the responses that have not been completely written yet
+     */
+    ArrayDeque<ByteBuffer> responses = new ArrayDeque<ByteBuffer>();
+
+    /**
+     * set when the client has stopped sending, or when a request had a bad length so the rest of the stream cannot be framed;
+     *  the connection is closed once the pending responses have been written
+     */
+    boolean closeAfterWrite;
+  }
+
+  /**
+   * the constructor
+   * @param socketPath  the path of the Unix domain socket the daemon listens on
+   */
+  public HuffmanDaemon(Path socketPath){
+    this.socketPath = socketPath;
+    codec.setMaxBlockLength(MAX_PAYLOAD);
+  }
+
+  /**
+   * Method that binds the socket and serves requests until the process is stopped
+   */
+  public void serve() throws IOException{
+    warmUp();
+    Files.deleteIfExists(socketPath);
+    ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    server.bind(UnixDomainSocketAddress.of(socketPath));
+    server.configureBlocking(false);
+    socketPath.toFile().deleteOnExit();
+    Selector selector = Selector.open();
+    server.register(selector, SelectionKey.OP_ACCEPT);
+    while(true){
+      selector.select();
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while(keys.hasNext() == true){
+        SelectionKey key = keys.next();
+        keys.remove();
+        try{
+          if(key.isAcceptable()){
+            SocketChannel client = server.accept();
+            if(client != null){
+              client.configureBlocking(false);
+              client.register(selector, SelectionKey.OP_READ, new Connection());
+            }
+          }
+          else{
+            if(key.isReadable()){
+              read(key);
+            }
+            if(key.isValid() && key.isWritable()){
+              write(key);
+            }
+          }
+        }
+        catch(IOException | RuntimeException e){
+          key.cancel();
+          key.channel().close();
+        }
+      }
+    }
+  }
+
+  /**
+   * Helper method that reads whatever is available from a connection and handles every request that has been completely received
+   * @param key  the selection key of the connection
+   */
+  private void read(SelectionKey key) throws IOException{
+    SocketChannel channel = (SocketChannel)key.channel();
+    Connection connection = (Connection)key.attachment();
+    while(true){
+      ByteBuffer target = connection.payload == null ? connection.header : connection.payload;
+      int read = channel.read(target);
+      if(read < 0){
+        /**
+         * the client has finished sending; answers to the requests it already sent still have to be written before closing
+         */
+        if(connection.responses.isEmpty()){
+          key.cancel();
+          channel.close();
+        }
+        else{
+          connection.closeAfterWrite = true;
+          key.interestOps(SelectionKey.OP_WRITE);
+        }
+        return;
+      }
+      if(target.hasRemaining()){
+        return;
+      }
+      if(connection.payload == null){
+        int length = connection.header.getInt(2);
+        if(length < 0 || length > MAX_PAYLOAD){
+          connection.responses.add(frame(ERROR, ("payload length " + length + " is out of range").getBytes(StandardCharsets.UTF_8)));
+          connection.closeAfterWrite = true;
+          key.interestOps(SelectionKey.OP_WRITE);
+          return;
+        }
+        connection.payload = ByteBuffer.allocate(length);
+        if(length > 0){
+          continue;
+        }
+      }
+      byte operation = connection.header.get(0);
+      byte mode = connection.header.get(1);
+      connection.responses.add(handle(operation, mode, connection.payload.array()));
+      connection.header.clear();
+      connection.payload = null;
+      key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+  }
+
+  /**
+   * Helper method that writes pending responses to a connection until they are all written or the socket buffer is full
+   * @param key  the selection key of the connection
+   */
+  private void write(SelectionKey key) throws IOException{
+    SocketChannel channel = (SocketChannel)key.channel();
+    Connection connection = (Connection)key.attachment();
+    while(connection.responses.isEmpty() == false){
+      ByteBuffer response = connection.responses.peek();
+      channel.write(response);
+      if(response.hasRemaining()){
+        return;
+      }
+      connection.responses.poll();
+    }
+    if(connection.closeAfterWrite == true){
+      key.cancel();
+      channel.close();
+      return;
+    }
+    key.interestOps(SelectionKey.OP_READ);
+  }
+
+  /**
+   * Helper method that runs one request and returns the response frame
+   * @param operation  COMPRESS or DECOMPRESS
+   * @param mode  BYTE_MODE or WORD_MODE
+   * @param payload  the data of the request
+   * @return the response frame, ready to be written
+   */
+  private ByteBuffer handle(byte operation, byte mode, byte[] payload){
+    try{
+      return frame(OK, run(operation, mode, payload));
+    }
+    catch(IOException | RuntimeException | OutOfMemoryError e){
+      /**
+       * the codecs check sizes against MAX_PAYLOAD before allocating, but a request must never stop the selector thread
+       */
+      return frame(ERROR, String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Helper method that compresses or decompresses a payload
+   * @param operation  COMPRESS or DECOMPRESS
+   * @param mode  BYTE_MODE or WORD_MODE
+   * @param payload  the data of the request
+   * @return the result of the operation
+   */
+  private byte[] run(byte operation, byte mode, byte[] payload) throws IOException{
+    if(mode == BYTE_MODE && operation == COMPRESS){
+      return codec.compress(payload);
+    }
+    if(mode == BYTE_MODE && operation == DECOMPRESS){
+      return codec.decompress(payload);
+    }
+    if(mode == WORD_MODE && operation == COMPRESS){
+      ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + 16);
+      /**
+       * invalid UTF-8 is reported instead of being replaced, since the replaced text would not decompress to the bytes sent
+       */
+      String text;
+      try{
+        text = StandardCharsets.UTF_8.newDecoder()
+          .onMalformedInput(CodingErrorAction.REPORT)
+          .onUnmappableCharacter(CodingErrorAction.REPORT)
+          .decode(ByteBuffer.wrap(payload)).toString();
+      }
+      catch(CharacterCodingException e){
+        throw new IOException("word mode payload is not valid UTF-8 text; use byte mode for binary data");
+      }
+      HuffmanWordCompressor.compress(text, out);
+      return out.toByteArray();
+    }
+    if(mode == WORD_MODE && operation == DECOMPRESS){
+      String text = HuffmanWordCompressor.decompress(new ByteArrayInputStream(payload), MAX_PAYLOAD);
+      /**
+       * the limit above counts UTF-16 characters, but a character can take up to 3 bytes in UTF-8, so the encoded length is checked
+       *  before the response is built
+       */
+      long encodedLength = utf8Length(text);
+      if(encodedLength > MAX_PAYLOAD){
+        throw new IOException("decoded text of " + encodedLength + " UTF-8 bytes is larger than the limit of " + MAX_PAYLOAD);
+      }
+      return text.getBytes(StandardCharsets.UTF_8);
+    }
+    throw new IOException("unknown operation " + operation + " or mode " + mode);
+  }
+
+  /**
+   * Helper method that counts the bytes String.getBytes(StandardCharsets.UTF_8) would return, without building them
+   * @param text  the text to be measured
+   * @return the length of text in UTF-8
+   */
+  private static long utf8Length(String text){
+    long length = 0;
+    for(int i = 0; i < text.length(); i = i + 1){
+      char c = text.charAt(i);
+      if(c < 0x80){
+        length = length + 1;
+      }
+      else if(c < 0x800){
+        length = length + 2;
+      }
+      else if(Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))){
+        length = length + 4;
+        i = i + 1;
+      }
+      else if(Character.isSurrogate(c)){
+        /**
+         * an unpaired surrogate is replaced by '?'
+         */
+        length = length + 1;
+      }
+      else{
+        length = length + 3;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Helper method that builds a response frame
+   * @param status  OK or ERROR
+   * @param payload  the data of the response
+   * @return the response frame, positioned at its start
+   */
+  private static ByteBuffer frame(byte status, byte[] payload){
+    ByteBuffer response = ByteBuffer.allocate(5 + payload.length);
+    response.put(status);
+    response.putInt(payload.length);
+    response.put(payload);
+    response.flip();
+    return response;
+  }
+
+  /**
+   * Helper method that runs both codecs on sample data before the socket is opened, so that the first real requests already
+   *  run compiled code
+   */
+  private void warmUp() throws IOException{
+    StringBuilder builder = new StringBuilder();
+    for(int i = 0; i < 2000; i = i + 1){
+      builder.append("the quick brown fox ").append(i % 97).append(" jumps over the lazy dog.\n");
+    }
+    byte[] sample = builder.toString().getBytes(StandardCharsets.UTF_8);
+    for(int i = 0; i < 20; i = i + 1){
+      run(DECOMPRESS, BYTE_MODE, run(COMPRESS, BYTE_MODE, sample));
+      run(DECOMPRESS, WORD_MODE, run(COMPRESS, WORD_MODE, sample));
+    }
+  }
+
+  /**
+   * main method: starts the daemon on the socket path given as the first argument, or on DEFAULT_SOCKET
+   */
+  public static void main(String[] args) throws IOException{
+    String socket = args.length > 0 ? args[0] : DEFAULT_SOCKET;
+    new HuffmanDaemon(Paths.get(socket)).serve();
+  }
+}
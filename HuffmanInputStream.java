@@ -0,0 +1,212 @@
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+
+/**
+ * Class that reads data written by HuffmanOutputStream (or HuffmanWritableChannel) and returns the original bytes, decoding one block
+ *  at a time. Like java.util.zip.GZIPInputStream, it reads the compressed data from the underlying stream in chunks of up to
+ *  BUFFER_SIZE bytes into its own buffer, so the underlying stream does not need to be buffered.
+ *
+ * Because of that, the last chunk read may go past the end marker. If the underlying stream is a PushbackInputStream with room for
+ *  the bytes read past the end marker (BUFFER_SIZE is always enough), they are pushed back into it and can be read from it
+ *  afterwards. Otherwise they may be consumed and lost.
+ *
+ * Blocks longer than maxBlockLength (DEFAULT_MAX_BLOCK_LENGTH unless the constructor is given another bound) are refused with an
+ *  IOException before anything is allocated for them, so a corrupted length cannot make the stream allocate unbounded memory.
+ *  Data written by HuffmanOutputStream with a larger block size needs a larger bound
+ * @author Esther Shin
+ */
+public class HuffmanInputStream extends FilterInputStream{
+
+  /**
+   * the largest number of compressed bytes read from the underlying stream at a time
+   */
+  public static final int BUFFER_SIZE = 8192;
+
+  /**
+   * the longest decoded block accepted when no bound is given
+   */
+  public static final int DEFAULT_MAX_BLOCK_LENGTH = 64 * 1024 * 1024;
+
+  /**
+   * the codec that decodes each block
+   */
+  private HuffmanByteCodec codec = new HuffmanByteCodec();
+
+  /**
+   * stores the decoded bytes of the current block
+   */
+  private byte[] block = new byte[0];
+
+  /**
+   * the position of the next byte to be returned from block
+   */
+  private int position;
+
+  /**
+   * set once the end marker has been read
+   */
+  private boolean finished;
+
+  /**
+   * stores the compressed bytes read from the underlying stream
+   */
+  private byte[] buffer = new byte[BUFFER_SIZE];
+
+  /**
+   * the position of the next compressed byte to be decoded from buffer
+   */
+  private int bufferPosition;
+
+  /**
+   * the number of compressed bytes stored in buffer
+   */
+  private int bufferCount;
+
+  /**
+   * the stream that the codec reads the compressed bytes from; it hands out the bytes in buffer and refills it when they run out
+   */
+  private InputStream source = new InputStream(){
+    @Override
+    public int read() throws IOException{
+      while(bufferPosition == bufferCount){
+        bufferCount = in.read(buffer, 0, buffer.length);
+        bufferPosition = 0;
+        if(bufferCount < 0){
+          bufferCount = 0;
+          return -1;
+        }
+      }
+      int b = buffer[bufferPosition] & 0xFF;
+      bufferPosition = bufferPosition + 1;
+      return b;
+    }
+  };
+
+  /**
+   * the constructor, which accepts blocks of up to DEFAULT_MAX_BLOCK_LENGTH bytes
+   * @param in  the stream that the compressed blocks are read from
+   */
+  public HuffmanInputStream(InputStream in){
+    this(in, DEFAULT_MAX_BLOCK_LENGTH);
+  }
+
+  /**
+   * the constructor
+   * @param in  the stream that the compressed blocks are read from
+   * @param maxBlockLength  the largest number of bytes a decoded block may have
+   */
+  public HuffmanInputStream(InputStream in, int maxBlockLength){
+    super(in);
+    if(maxBlockLength < 1){
+      throw new IllegalArgumentException("maximum block length must be positive: " + maxBlockLength);
+    }
+    codec.setMaxBlockLength(maxBlockLength);
+  }
+
+  /**
+   * Method that reads one decoded byte
+   * @return the byte (0 to 255), or -1 at the end of the compressed data
+   */
+  @Override
+  public int read() throws IOException{
+    if(fill() == false){
+      return -1;
+    }
+    int b = block[position] & 0xFF;
+    position = position + 1;
+    return b;
+  }
+
+  /**
+   * Method that reads decoded bytes into part of an array
+   * @param b  the array that the bytes are read into
+   * @param off  the position in b of the first byte read
+   * @param len  the largest number of bytes to read
+   * @return the number of bytes read, or -1 at the end of the compressed data
+   */
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException{
+    if(off < 0 || len < 0 || len > b.length - off){
+      throw new IndexOutOfBoundsException();
+    }
+    if(len == 0){
+      return 0;
+    }
+    if(fill() == false){
+      return -1;
+    }
+    int copied = Math.min(len, block.length - position);
+    System.arraycopy(block, position, b, off, copied);
+    position = position + copied;
+    return copied;
+  }
+
+  /**
+   * Method that returns how many decoded bytes can be read without decoding another block
+   * @return the number of bytes left in the current block
+   */
+  @Override
+  public int available(){
+    return block.length - position;
+  }
+
+  /**
+   * Method that skips decoded bytes
+   * @param n  the number of bytes to skip
+   * @return the number of bytes skipped
+   */
+  @Override
+  public long skip(long n) throws IOException{
+    long skipped = 0;
+    while(skipped < n && fill() == true){
+      int step = (int)Math.min(n - skipped, block.length - position);
+      position = position + step;
+      skipped = skipped + step;
+    }
+    return skipped;
+  }
+
+  /**
+   * Method that reports that mark and reset are not supported
+   * @return false
+   */
+  @Override
+  public boolean markSupported(){
+    return false;
+  }
+
+  /**
+   * Helper method that decodes the next block when the current one has been used up
+   * @return true if there is at least one byte to read, false at the end marker
+   */
+  private boolean fill() throws IOException{
+    while(position == block.length){
+      if(finished == true){
+        return false;
+      }
+      /**
+       * a stream cut off before its end marker makes the codec throw an EOFException here
+       */
+      block = codec.decompress(source);
+      position = 0;
+      if(block.length == 0){
+        finished = true;
+        if(in instanceof PushbackInputStream && bufferPosition < bufferCount){
+          /**
+           * unread pushes back all of the bytes or none of them; when they do not fit they are consumed, as the class doc says,
+           *  instead of failing a stream that was read correctly
+           */
+          try{
+            ((PushbackInputStream)in).unread(buffer, bufferPosition, bufferCount - bufferPosition);
+          }
+          catch(IOException e){
+          }
+          bufferPosition = bufferCount;
+        }
+      }
+    }
+    return true;
+  }
+}
@@ -19,19 +19,25 @@ public class HuffmanNode{
    *  frequency is the frequency of the character in the leaf node; for an interior node, the frequency is the sum of all
    *  frequency values in the leaves of the subtree
    */
-  private Integer frequency;
+  private Long frequency;
   
   /**
    * stores the character denoted by the node
    */
   private Character inChar;
   
+  /**
+   * stores the index of the symbol denoted by a leaf node when the alphabet is not made of single characters 
+   *  (for example the index of a word in a token dictionary); -1 for interior nodes and character leaves
+   */
+  private int symbol = -1;
+  
   /**
    * the constructor
    * @param inChar  the character to be denoted by the node
    * @param frequency  the frequency of occurrences of a character stored in the node
    */
-  public HuffmanNode(Character inChar, Integer frequency){
+  public HuffmanNode(Character inChar, Long frequency){
     this.frequency = frequency;
     this.inChar = inChar;
   }
@@ -52,11 +58,27 @@ public class HuffmanNode{
     return inChar;
   }
   
+  /**
+   * Sets the index of the symbol denoted by a leaf node
+   * @param symbol  the dictionary index of the symbol that is to be denoted by the node
+   */
+  public void setSymbol(int symbol){
+    this.symbol = symbol;
+  }
+  
+  /**
+   * Method that returns the index of the symbol denoted by a node
+   * @return the dictionary index of the symbol denoted by the node, or -1 if the node does not denote an indexed symbol
+   */
+  public int getSymbol(){
+    return symbol;
+  }
+  
   /**
    * Sets the frequency of occurrences of a character stored in the node
    * @param frequency  the frequency (number of times) of occurrences of the character stored in the node
    */
-  public void setFrequency(Integer frequency){
+  public void setFrequency(Long frequency){
     this.frequency = frequency;
   }
   
@@ -64,7 +86,7 @@ public class HuffmanNode{
    * Method that returns the frequency of occurrences of a character stored in a node
    * @return the frequency of occurrences of a character stored in a node
    */
-  public int getFrequency(){
+  public long getFrequency(){
     return frequency;
   }
   
@@ -0,0 +1,227 @@
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Class that compresses everything written to it and passes the compressed data on to another output stream, like
+ *  java.util.zip.GZIPOutputStream, so the Huffman codec can be chained into existing I/O code without temporary files.
+ *
+ * Written bytes are collected into blocks of blockSize bytes; every full block is compressed with HuffmanByteCodec and written to the
+ *  underlying stream in a single call. flush() also writes the partly filled block so that everything written so far can be decoded.
+ *  finish() and close() write the end marker (an empty block). HuffmanInputStream reads the result back; a block size above
+ *  HuffmanInputStream.DEFAULT_MAX_BLOCK_LENGTH needs a reader built with a larger bound.
+ *
+ * When splitBlocks is set, each block is handed to HuffmanByteCodec.compressSplit, which cuts it further wherever the byte
+ *  statistics change (for example text followed by base64 followed by numbers) so every part gets a code that fits it
+ * @author Esther Shin
+ */
+public class HuffmanOutputStream extends FilterOutputStream{
+
+  /**
+   * the block size used when none is given
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+  /**
+   * the codec that compresses each block
+   */
+  private HuffmanByteCodec codec = new HuffmanByteCodec();
+
+  /**
+   * stores the bytes of the block that is being filled
+   */
+  private byte[] block;
+
+  /**
+   * the number of bytes stored in block
+   */
+  private int count;
+
+  /**
+   * stores the compressed form of a block until it is written to the underlying stream
+   */
+  private ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+  /**
+   * set once the end marker has been written
+   */
+  private boolean finished;
+
+  /**
+   * set when blocks are split where their statistics change (see HuffmanByteCodec.compressSplit)
+   */
+  private boolean splitBlocks;
+
+  /**
+   * the constructor, which uses DEFAULT_BLOCK_SIZE
+   * @param out  the stream that the compressed blocks are written to
+   */
+  public HuffmanOutputStream(OutputStream out){
+    this(out, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * the constructor
+   * @param out  the stream that the compressed blocks are written to
+   * @param blockSize  the number of bytes collected into each block
+   */
+  public HuffmanOutputStream(OutputStream out, int blockSize){
+    this(out, blockSize, false);
+  }
+
+  /**
+   * the constructor
+   * @param out  the stream that the compressed blocks are written to
+   * @param blockSize  the number of bytes collected into each block
+   * @param splitBlocks  true to split blocks where their byte statistics change
+   */
+  public HuffmanOutputStream(OutputStream out, int blockSize, boolean splitBlocks){
+    super(out);
+    if(blockSize < 1){
+      throw new IllegalArgumentException("block size must be positive: " + blockSize);
+    }
+    block = new byte[blockSize];
+    this.splitBlocks = splitBlocks;
+  }
+
+  /**
+   * Method that writes one byte
+   * @param b  the byte to be written (only the lowest 8 bits are used)
+   */
+  @Override
+  public void write(int b) throws IOException{
+    ensureOpen();
+    block[count] = (byte)b;
+    count = count + 1;
+    if(count == block.length){
+      writeBlock(block, 0, count);
+      count = 0;
+    }
+  }
+
+  /**
+   * Method that writes part of an array. When no block is being filled, whole blocks are compressed straight from the caller's
+   *  array instead of being copied first
+   * @param b  the array that holds the bytes to be written
+   * @param off  the position of the first byte to be written
+   * @param len  the number of bytes to be written
+   */
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException{
+    ensureOpen();
+    if(off < 0 || len < 0 || len > b.length - off){
+      throw new IndexOutOfBoundsException();
+    }
+    while(len > 0){
+      if(count == 0 && len >= block.length){
+        writeBlock(b, off, block.length);
+        off = off + block.length;
+        len = len - block.length;
+      }
+      else{
+        int copied = Math.min(len, block.length - count);
+        System.arraycopy(b, off, block, count, copied);
+        count = count + copied;
+        off = off + copied;
+        len = len - copied;
+        if(count == block.length){
+          writeBlock(block, 0, count);
+          count = 0;
+        }
+      }
+    }
+  }
+
+  /**
+   * Method that writes all the remaining bytes of a buffer. A heap buffer is read through its backing array without copying
+   * @param src  the buffer whose remaining bytes are written; its position is moved to its limit
+   * @return the number of bytes written
+   */
+  public int write(ByteBuffer src) throws IOException{
+    int written = src.remaining();
+    if(src.hasArray()){
+      write(src.array(), src.arrayOffset() + src.position(), written);
+      src.position(src.limit());
+    }
+    else{
+      ensureOpen();
+      while(src.hasRemaining()){
+        int copied = Math.min(src.remaining(), block.length - count);
+        src.get(block, count, copied);
+        count = count + copied;
+        if(count == block.length){
+          writeBlock(block, 0, count);
+          count = 0;
+        }
+      }
+    }
+    return written;
+  }
+
+  /**
+   * Method that writes the partly filled block (if any) and flushes the underlying stream
+   */
+  @Override
+  public void flush() throws IOException{
+    if(finished == false && count > 0){
+      writeBlock(block, 0, count);
+      count = 0;
+    }
+    out.flush();
+  }
+
+  /**
+   * Method that writes the remaining data and the end marker without closing the underlying stream
+   */
+  public void finish() throws IOException{
+    if(finished == false){
+      if(count > 0){
+        writeBlock(block, 0, count);
+        count = 0;
+      }
+      writeBlock(block, 0, 0);
+      finished = true;
+    }
+  }
+
+  /**
+   * Method that finishes the compressed data and closes the underlying stream
+   */
+  @Override
+  public void close() throws IOException{
+    try{
+      finish();
+    }
+    finally{
+      out.close();
+    }
+  }
+
+  /**
+   * Helper method that compresses one block and writes it to the underlying stream in a single call
+   * @param b  the array that holds the block
+   * @param off  the position of the first byte of the block
+   * @param len  the number of bytes in the block
+   */
+  private void writeBlock(byte[] b, int off, int len) throws IOException{
+    compressed.reset();
+    if(splitBlocks == true && len > 0){
+      codec.compressSplit(b, off, len, compressed);
+    }
+    else{
+      codec.compress(b, off, len, compressed);
+    }
+    compressed.writeTo(out);
+  }
+
+  /**
+   * Helper method that fails if the end marker has already been written
+   */
+  private void ensureOpen() throws IOException{
+    if(finished == true){
+      throw new IOException("write after finish");
+    }
+  }
+}
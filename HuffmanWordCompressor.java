@@ -0,0 +1,354 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Class that produces a Huffman encoding of English text using words instead of single characters as the symbols. The text is split
+ *  into tokens (runs of letters/digits, runs of whitespace, and single punctuation characters), every distinct token gets an index in
+ *  a hash-indexed dictionary, and the Huffman tree is built over those indexes. Tokens that occur fewer times than the escape threshold
+ *  are not put in the dictionary; they are written as an escape code followed by their UTF-8 bytes.
+ *
+ * The compressed file starts with a compact dictionary header: the number of tokens, the longest code length, how many dictionary
+ *  entries have each code length, and then the entries themselves in canonical order (see CanonicalCode), so no codes are stored.
+ * @author Esther Shin
+ */
+public class HuffmanWordCompressor{
+
+  /**
+   * the longest code length allowed; if the tree is deeper than this, more rare tokens are escaped and the tree is rebuilt
+   */
+  public static final int MAX_CODE_LENGTH = 32;
+
+  /**
+   * tokens that occur fewer times than this are escaped instead of being stored in the dictionary
+   */
+  public static final int DEFAULT_ESCAPE_THRESHOLD = 2;
+
+  /**
+   * the dictionary entry of the escape symbol; the tokenizer never produces an empty token so it cannot clash with a real one
+   */
+  private static final String ESCAPE = "";
+
+  /**
+   * Method that reads an input text file, produces a word-level Huffman encoding of it, and writes the compressed file in outputFileName.
+   *  The savings are written to "totalSavingsWordChart.txt"
+   * @param inputFileName  the name of the file that you want to input and produce a Huffman encoding of
+   * @param outputFileName  the name of the output file that contains the compressed input file
+   */
+  public static void huffmanWordCoder(String inputFileName, String outputFileName) throws IOException{
+    /**
+     * book: stores the input file as a String
+     */
+    String book = new String(Files.readAllBytes(Paths.get(inputFileName)), StandardCharsets.UTF_8);
+    OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFileName));
+    long finalBits = compress(book, out);
+    out.close();
+
+    /**
+     * originalBits: stores the number of bits in the original input file
+     */
+    long originalBits = Files.size(Paths.get(inputFileName)) * 8;
+    BufferedWriter writer = new BufferedWriter(new FileWriter("totalSavingsWordChart.txt"));
+    writer.write("Total Savings: " + (originalBits - finalBits) + "\n");
+    writer.close();
+  }
+
+  /**
+   * Method that reads a file produced by huffmanWordCoder and writes the original text back out in outputFileName
+   * @param inputFileName  the name of the compressed file
+   * @param outputFileName  the name of the file that the decoded text is written to
+   */
+  public static void huffmanWordDecoder(String inputFileName, String outputFileName) throws IOException{
+    InputStream in = new BufferedInputStream(new FileInputStream(inputFileName));
+    Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFileName), StandardCharsets.UTF_8));
+    writer.write(decompress(in));
+    writer.close();
+    in.close();
+  }
+
+  /**
+   * Method that compresses text with the default escape threshold
+   * @param text  the text to be compressed
+   * @param out  the stream that the dictionary header and the encoded tokens are written to
+   * @return the number of bits written to out
+   */
+  public static long compress(String text, OutputStream out) throws IOException{
+    return compress(text, out, DEFAULT_ESCAPE_THRESHOLD);
+  }
+
+  /**
+   * Method that tokenizes text, builds the word-level Huffman code, and writes the dictionary header followed by the encoded tokens
+   * @param text  the text to be compressed
+   * @param out  the stream that the dictionary header and the encoded tokens are written to
+   * @param escapeThreshold  tokens that occur fewer times than this are escaped
+   * @return the number of bits written to out
+   */
+  public static long compress(String text, OutputStream out, int escapeThreshold) throws IOException{
+    /**
+     * dictionary: maps each distinct token to its index in tokens
+     */
+    HashMap<String, Integer> dictionary = new HashMap<String, Integer>();
+
+    /**
+     * tokens: stores each distinct token at its dictionary index (index 0 is the escape symbol)
+     */
+    ArrayList<String> tokens = new ArrayList<String>();
+    dictionary.put(ESCAPE, 0);
+    tokens.add(ESCAPE);
+
+    /**
+     * sequence: stores the dictionary index of every token of the text, in order
+     */
+    int[] sequence = new int[Math.max(16, text.length() / 4)];
+
+    /**
+     * sequenceLength: the number of tokens stored in sequence
+     */
+    int sequenceLength = 0;
+
+    /**
+     * counts: stores the number of occurrences of each dictionary index
+     */
+    long[] counts = new long[1024];
+    int start = 0;
+    while(start < text.length()){
+      int end = tokenEnd(text, start);
+      String token = text.substring(start, end);
+      Integer index = dictionary.get(token);
+      if(index == null){
+        index = tokens.size();
+        dictionary.put(token, index);
+        tokens.add(token);
+        if(index == counts.length){
+          counts = Arrays.copyOf(counts, counts.length * 2);
+        }
+      }
+      counts[index] = counts[index] + 1;
+      if(sequenceLength == sequence.length){
+        sequence = Arrays.copyOf(sequence, sequence.length * 2);
+      }
+      sequence[sequenceLength] = index;
+      sequenceLength = sequenceLength + 1;
+      start = end;
+    }
+
+    /**
+     * lengths: stores the code length of each dictionary index (0 for escaped tokens)
+     */
+    int[] lengths = buildCodeLengths(counts, tokens.size(), escapeThreshold);
+    while(CanonicalCode.maxLength(lengths) > MAX_CODE_LENGTH){
+      escapeThreshold = escapeThreshold * 2;
+      lengths = buildCodeLengths(counts, tokens.size(), escapeThreshold);
+    }
+    int maxLength = CanonicalCode.maxLength(lengths);
+    int[] lengthCounts = CanonicalCode.lengthCounts(lengths, maxLength);
+    int[] order = CanonicalCode.canonicalOrder(lengths, lengthCounts);
+    int[] codes = CanonicalCode.canonicalCodes(lengths, lengthCounts);
+
+    /**
+     * writes the dictionary header: token count, longest code length, entries per code length, then the entries in canonical order
+     */
+    BitWriter bits = new BitWriter(out);
+    bits.writeVarLong(sequenceLength);
+    bits.writeBits(maxLength, 8);
+    for(int length = 1; length <= maxLength; length = length + 1){
+      bits.writeVarLong(lengthCounts[length]);
+    }
+    for(int i = 0; i < order.length; i = i + 1){
+      writeLiteral(bits, tokens.get(order[i]));
+    }
+
+    /**
+     * writes every token as its code, or as the escape code followed by the token itself
+     */
+    for(int i = 0; i < sequenceLength; i = i + 1){
+      int index = sequence[i];
+      if(lengths[index] > 0){
+        bits.writeBits(codes[index], lengths[index]);
+      }
+      else{
+        bits.writeBits(codes[0], lengths[0]);
+        writeLiteral(bits, tokens.get(index));
+      }
+    }
+    bits.finish();
+    return bits.getBitsWritten();
+  }
+
+  /**
+   * Method that reads the dictionary header and the encoded tokens written by compress and rebuilds the original text
+   * @param in  the stream that holds the compressed text
+   * @return the decoded text
+   */
+  public static String decompress(InputStream in) throws IOException{
+    return decompress(in, Integer.MAX_VALUE - 8);
+  }
+
+  /**
+   * Method that reads the dictionary header and the encoded tokens written by compress and rebuilds the original text, refusing
+   *  input whose header or tokens would decode to more than maxLength characters. Nothing is allocated from the header alone, so
+   *  untrusted input cannot make this use much more memory than its own size and maxLength
+   * @param in  the stream that holds the compressed text
+   * @param maxLength  the largest number of characters the decoded text may have
+   * @return the decoded text
+   */
+  public static String decompress(InputStream in, long maxLength) throws IOException{
+    BitReader bits = new BitReader(in);
+    long tokenCount = bits.readVarLong();
+    if(tokenCount < 0 || tokenCount > maxLength){
+      throw new IOException("token count " + tokenCount + " is larger than the limit of " + maxLength + " characters");
+    }
+    int maxCodeLength = (int)bits.readBits(8);
+    if(maxCodeLength > MAX_CODE_LENGTH){
+      throw new IOException("code length " + maxCodeLength + " in dictionary header is too long");
+    }
+    int[] lengthCounts = new int[maxCodeLength + 1];
+
+    /**
+     * entries: the number of dictionary entries; every entry except the escape is used by at least one token
+     */
+    long entries = 0;
+    for(int length = 1; length <= maxCodeLength; length = length + 1){
+      long count = bits.readVarLong();
+      entries = entries + count;
+      if(count < 0 || entries > tokenCount + 1){
+        throw new IOException("dictionary header has more entries than the " + tokenCount + " tokens need");
+      }
+      lengthCounts[length] = (int)count;
+    }
+
+    /**
+     * order: stores the dictionary entries in canonical order; it grows as entries are actually read
+     */
+    ArrayList<String> order = new ArrayList<String>();
+    for(long i = 0; i < entries; i = i + 1){
+      order.add(readLiteral(bits, maxLength));
+    }
+    StringBuilder builder = new StringBuilder();
+    for(long i = 0; i < tokenCount; i = i + 1){
+      String token = order.get(CanonicalCode.decodePosition(bits, lengthCounts));
+      if(token.isEmpty()){
+        token = readLiteral(bits, maxLength - builder.length());
+      }
+      builder.append(token);
+      if(builder.length() > maxLength){
+        throw new IOException("decoded text is longer than the limit of " + maxLength + " characters");
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Helper method that builds the Huffman tree over the dictionary tokens that are not escaped and returns the code lengths.
+   *  The escape symbol (index 0) is always in the tree, with the total number of escaped occurrences as its frequency
+   * @param counts  the number of occurrences of each dictionary index
+   * @param dictionarySize  the number of dictionary indexes in use
+   * @param escapeThreshold  tokens that occur fewer times than this are escaped
+   * @return the code length of each dictionary index (0 for escaped tokens)
+   */
+  private static int[] buildCodeLengths(long[] counts, int dictionarySize, int escapeThreshold){
+    Project2Sort heap = new Project2Sort();
+    long escapeCount = 0;
+    for(int index = 1; index < dictionarySize; index = index + 1){
+      if(counts[index] < escapeThreshold){
+        escapeCount = escapeCount + counts[index];
+      }
+      else{
+        HuffmanNode leaf = new HuffmanNode(null, counts[index]);
+        leaf.setSymbol(index);
+        heap.insert(leaf);
+      }
+    }
+    HuffmanNode escape = new HuffmanNode(null, escapeCount);
+    escape.setSymbol(0);
+    heap.insert(escape);
+    return CanonicalCode.codeLengths(HuffmanCompressor.huffmanTree(heap), dictionarySize);
+  }
+
+  /**
+   * Helper method that finds where the token starting at position start ends. A token is a run of letters and digits (apostrophes
+   *  between letters stay inside the word), a run of whitespace, or a single other character
+   * @param text  the text being tokenized
+   * @param start  the position of the first character of the token
+   * @return the position just after the last character of the token
+   */
+  private static int tokenEnd(String text, int start){
+    int codePoint = text.codePointAt(start);
+    int end = start + Character.charCount(codePoint);
+    if(Character.isLetterOrDigit(codePoint)){
+      while(end < text.length()){
+        int next = text.codePointAt(end);
+        if(Character.isLetterOrDigit(next)){
+          end = end + Character.charCount(next);
+        }
+        else if(next == '\'' && end + 1 < text.length() && Character.isLetter(text.codePointAt(end + 1))){
+          end = end + 1;
+        }
+        else{
+          break;
+        }
+      }
+    }
+    else if(Character.isWhitespace(codePoint)){
+      while(end < text.length() && Character.isWhitespace(text.codePointAt(end))){
+        end = end + Character.charCount(text.codePointAt(end));
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Helper method that writes a token as its UTF-8 byte length followed by its UTF-8 bytes
+   * @param bits  the bits that the token is written to
+   * @param token  the token to be written
+   */
+  private static void writeLiteral(BitWriter bits, String token) throws IOException{
+    byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+    bits.writeVarLong(bytes.length);
+    for(int i = 0; i < bytes.length; i = i + 1){
+      bits.writeBits(bytes[i], 8);
+    }
+  }
+
+  /**
+   * Helper method that reads a token written by writeLiteral. The bytes are collected as they are read, so a bad length cannot
+   *  allocate more than the input actually holds
+   * @param bits  the bits that the token is read from
+   * @param maxLength  the largest number of UTF-8 bytes the token may have
+   * @return the token
+   */
+  private static String readLiteral(BitReader bits, long maxLength) throws IOException{
+    long length = bits.readVarLong();
+    if(length < 0 || length > maxLength){
+      throw new IOException("token of " + length + " bytes is longer than the limit of " + maxLength);
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream((int)Math.min(length, 256));
+    for(long i = 0; i < length; i = i + 1){
+      bytes.write((int)bits.readBits(8));
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * main method: compresses the same input file as HuffmanCompressor with the word-level alphabet, then decodes it again
+   */
+  public static void main(String[] args) throws IOException{
+    huffmanWordCoder("p2InputText.txt", "p2WordOutputFile.bin");
+    huffmanWordDecoder("p2WordOutputFile.bin", "p2WordDecodedFile.txt");
+  }
+}
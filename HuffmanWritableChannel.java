@@ -0,0 +1,105 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Class that compresses everything written to it and passes the compressed blocks on to another channel. It uses the same block
+ *  format as HuffmanOutputStream, so the data can be read back with HuffmanInputStream (or Channels.newChannel around one).
+ *  Heap buffers are compressed straight from their backing arrays
+ * @author Esther Shin
+ */
+public class HuffmanWritableChannel implements WritableByteChannel{
+
+  /**
+   * the stream that collects and compresses the blocks
+   */
+  private HuffmanOutputStream out;
+
+  /**
+   * the channel that the compressed blocks are written to
+   */
+  private WritableByteChannel target;
+
+  /**
+   * set once the channel has been closed
+   */
+  private boolean closed;
+
+  /**
+   * the constructor, which uses HuffmanOutputStream.DEFAULT_BLOCK_SIZE
+   * @param target  the channel that the compressed blocks are written to
+   */
+  public HuffmanWritableChannel(WritableByteChannel target){
+    this(target, HuffmanOutputStream.DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * the constructor
+   * @param target  the channel that the compressed blocks are written to
+   * @param blockSize  the number of bytes collected into each block
+   */
+  public HuffmanWritableChannel(WritableByteChannel target, int blockSize){
+    this(target, blockSize, false);
+  }
+
+  /**
+   * the constructor
+   * @param target  the channel that the compressed blocks are written to
+   * @param blockSize  the number of bytes collected into each block
+   * @param splitBlocks  true to split blocks where their byte statistics change
+   */
+  public HuffmanWritableChannel(WritableByteChannel target, int blockSize, boolean splitBlocks){
+    this.target = target;
+    this.out = new HuffmanOutputStream(Channels.newOutputStream(target), blockSize, splitBlocks);
+  }
+
+  /**
+   * Method that writes all the remaining bytes of a buffer
+   * @param src  the buffer whose remaining bytes are written
+   * @return the number of bytes written
+   */
+  @Override
+  public int write(ByteBuffer src) throws IOException{
+    if(closed == true){
+      throw new ClosedChannelException();
+    }
+    return out.write(src);
+  }
+
+  /**
+   * Method that writes the partly filled block (if any) to the target channel
+   */
+  public void flush() throws IOException{
+    out.flush();
+  }
+
+  /**
+   * Method that writes the remaining data and the end marker without closing the target channel
+   */
+  public void finish() throws IOException{
+    out.finish();
+  }
+
+  /**
+   * Method that reports whether the channel is still open
+   * @return true until close has been called
+   */
+  @Override
+  public boolean isOpen(){
+    return closed == false;
+  }
+
+  /**
+   * Method that writes the remaining data and the end marker and closes the target channel
+   */
+  @Override
+  public void close() throws IOException{
+    if(closed == false){
+      closed = true;
+      out.close();
+      target.close();
+    }
+  }
+}
@@ -0,0 +1,198 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Class that checks that the pipeline works with 64-bit sizes on synthetic inputs that are too large for int counters.
+ *  The stream check pushes more than 4 GiB of generated bytes through HuffmanOutputStream and HuffmanInputStream (connected by a
+ *  pipe, so nothing is stored) and compares the byte counts and CRC32 checksums. The book check writes a file of more than 2^31
+ *  characters without any line breaks, runs it through huffmanNodeCreator and outputFileAndSavings, and compares the long savings
+ *  with the value the known character frequencies give. Each check throws an IllegalStateException if it fails.
+ *
+ * Arguments (both optional): the number of bytes for the stream check, and the number of characters for the book check
+ * @author Esther Shin
+ */
+public class LargeInputCheck{
+
+  /**
+   * the default size of the stream check: a little more than 4 GiB
+   */
+  private static final long DEFAULT_STREAM_BYTES = (4L << 30) + 12345;
+
+  /**
+   * the default size of the book check: a little more than 2^31 characters
+   */
+  private static final long DEFAULT_BOOK_CHARS = (1L << 31) + 4;
+
+  /**
+   * Class that counts the bytes written through it
+   */
+  private static class CountingOutputStream extends FilterOutputStream{
+
+    /**
+     * the number of bytes written so far
+     */
+    long count;
+
+    /**
+     * the constructor
+     * @param out  the stream that the bytes are passed on to
+     */
+    CountingOutputStream(OutputStream out){
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException{
+      out.write(b);
+      count = count + 1;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException{
+      out.write(b, off, len);
+      count = count + len;
+    }
+  }
+
+  /**
+   * Helper method that builds skewed, text-like sample bytes that the generated stream is cut from
+   * @return the sample bytes
+   */
+  private static byte[] sample(){
+    byte[] sample = new byte[4 << 20];
+    long state = 88172645463325252L;
+    String letters = "etaoin shrdlcumwfgypbvkjxqz\n0123456789.,";
+    for(int i = 0; i < sample.length; i = i + 1){
+      /**
+       * xorshift random numbers; multiplying two of them makes the first letters far more common than the last
+       */
+      state = state ^ (state << 13);
+      state = state ^ (state >>> 7);
+      state = state ^ (state << 17);
+      long first = (state >>> 40) % letters.length();
+      long second = (state >>> 20) % letters.length();
+      sample[i] = (byte)letters.charAt((int)(first * second / letters.length()));
+    }
+    return sample;
+  }
+
+  /**
+   * Helper method that streams generated bytes through HuffmanOutputStream and HuffmanInputStream and compares both ends
+   * @param totalBytes  the number of bytes to stream
+   */
+  private static void streamCheck(long totalBytes) throws Exception{
+    byte[] sample = sample();
+    PipedInputStream pipeIn = new PipedInputStream(1 << 20);
+    PipedOutputStream pipeOut = new PipedOutputStream(pipeIn);
+    CountingOutputStream compressedCount = new CountingOutputStream(pipeOut);
+    CRC32 writtenCrc = new CRC32();
+    Exception[] writerFailure = new Exception[1];
+
+    /**
+     * writer: generates the bytes, cutting the sample at a different place every time so that blocks do not repeat exactly
+     */
+    Thread writer = new Thread(() -> {
+      try{
+        HuffmanOutputStream out = new HuffmanOutputStream(compressedCount);
+        long written = 0;
+        int start = 0;
+        while(written < totalBytes){
+          int length = (int)Math.min(sample.length - start, totalBytes - written);
+          out.write(sample, start, length);
+          writtenCrc.update(sample, start, length);
+          written = written + length;
+          start = (start + 7919) % (sample.length / 2);
+        }
+        out.close();
+      }
+      catch(Exception e){
+        writerFailure[0] = e;
+      }
+    });
+    writer.start();
+
+    HuffmanInputStream in = new HuffmanInputStream(pipeIn);
+    CRC32 readCrc = new CRC32();
+    byte[] buffer = new byte[1 << 16];
+    long read = 0;
+    int n = in.read(buffer);
+    while(n != -1){
+      readCrc.update(buffer, 0, n);
+      read = read + n;
+      n = in.read(buffer);
+    }
+    in.close();
+    writer.join();
+    if(writerFailure[0] != null){
+      throw writerFailure[0];
+    }
+    if(read != totalBytes || readCrc.getValue() != writtenCrc.getValue()){
+      throw new IllegalStateException("stream round trip failed: wrote " + totalBytes + " bytes (crc " + writtenCrc.getValue()
+                                        + "), read " + read + " bytes (crc " + readCrc.getValue() + ")");
+    }
+    if(compressedCount.count >= totalBytes){
+      throw new IllegalStateException("stream did not compress: " + totalBytes + " -> " + compressedCount.count + " bytes");
+    }
+    System.out.println("stream check passed: " + totalBytes + " bytes -> " + compressedCount.count + " compressed bytes, crc "
+                         + readCrc.getValue());
+  }
+
+  /**
+   * Helper method that runs a book of "aaab" repeated (no line breaks) through the character pipeline and checks the savings.
+   *  'a' occurs 3 times as often as 'b', so both get a 1-bit code and each character saves 7 bits
+   * @param totalChars  the number of characters in the book (rounded up to a multiple of 4)
+   */
+  private static void bookCheck(long totalChars) throws IOException{
+    long repeats = (totalChars + 3) / 4;
+    File input = File.createTempFile("largeInputCheck", ".txt");
+    input.deleteOnExit();
+    BufferedWriter writer = new BufferedWriter(new FileWriter(input), 1 << 16);
+    char[] pattern = "aaab".repeat(4096).toCharArray();
+    long left = repeats;
+    while(left > 0){
+      int now = (int)Math.min(left, 4096);
+      writer.write(pattern, 0, now * 4);
+      left = left - now;
+    }
+    writer.close();
+
+    /**
+     * the encoded bits are not needed, so they go to the null device when there is one
+     */
+    File output = new File("/dev/null");
+    if(output.exists() == false){
+      output = File.createTempFile("largeInputCheck", ".bits");
+      output.deleteOnExit();
+    }
+    HuffmanCompressor.huffmanCoder(input.getPath(), output.getPath());
+    input.delete();
+
+    BufferedReader chart = new BufferedReader(new FileReader("totalSavingsAndFinalTripleChart.txt"));
+    long savings = Long.parseLong(chart.readLine().substring("Total Savings: ".length()).trim());
+    chart.close();
+    long expected = 7 * 4 * repeats;
+    if(savings != expected){
+      throw new IllegalStateException("book savings were " + savings + " bits, expected " + expected);
+    }
+    System.out.println("book check passed: " + (4 * repeats) + " characters, savings " + savings + " bits");
+  }
+
+  /**
+   * main method: runs the stream check and then the book check
+   */
+  public static void main(String[] args) throws Exception{
+    long streamBytes = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_STREAM_BYTES;
+    long bookChars = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_BOOK_CHARS;
+    streamCheck(streamBytes);
+    bookCheck(bookChars);
+  }
+}
@@ -60,7 +60,7 @@ public class Project2Sort{
    * @param index  the position (in the heapArray) of the Huffman node whose frequency you want returned
    * @return the frequency stored in Huffman node stored at the specified index in the heapArray
    */
-  public Integer getFreq(int index){
+  public Long getFreq(int index){
     return heapArray.get(index).getFrequency();
   }
   
@@ -116,7 +116,7 @@ public class Project2Sort{
      *  if the parent's frequency is greater than the frequency of the Huffman node at position i. Then updates i to equal 
      *  the parent in order to move up the heapArray
      */
-    while(i > 0 && (((Integer)heapArray.get(parent).getFrequency()).compareTo((Integer)heapArray.get(i).getFrequency()) > 0)){ 
+    while(i > 0 && (((Long)heapArray.get(parent).getFrequency()).compareTo((Long)heapArray.get(i).getFrequency()) > 0)){ 
       swap(parent, i, heapArray);
       i = parent;
       parent = (i-1)/2;
@@ -162,14 +162,14 @@ public class Project2Sort{
         /**
          * If there is a right child, and the right child's frequency is less than the left child, then use the right child
          */
-        if(child + 1 < heapArray.size() && (((Integer)heapArray.get(child + 1).getFrequency()).compareTo((Integer)heapArray.get(child).getFrequency()) < 0)){
+        if(child + 1 < heapArray.size() && (((Long)heapArray.get(child + 1).getFrequency()).compareTo((Long)heapArray.get(child).getFrequency()) < 0)){
           child = child + 1;
         }
         /**
          * If the frequency of node at position i is greater than the frequency of its child (right child if above if statement is completed, left if it is not), 
          *  then swap them and update the value of the cursor and child in order to move down the heap and continue sifting
          */
-        if((((Integer)heapArray.get(i).getFrequency()).compareTo((Integer)heapArray.get(child).getFrequency()) > 0)){
+        if((((Long)heapArray.get(cursor).getFrequency()).compareTo((Long)heapArray.get(child).getFrequency()) > 0)){
           swap(cursor, child, heapArray);
           cursor = child;
           child = (2*cursor) + 1;
@@ -18,7 +18,7 @@ public class Triple{
   /**
    * the frequency of a character stored in the same triple "node"
    */
-  private Integer frequency;
+  private Long frequency;
   
   /**
    * the constructor
@@ -26,7 +26,7 @@ public class Triple{
    * @param frequency  the frequency of occurrences of the character stored in the same triple "node"
    * @param charCode  the encoding of the character stored in the same triple "node"
    */
-  public Triple(Character character, Integer frequency, String charCode){
+  public Triple(Character character, Long frequency, String charCode){
     this.character = character;
     this.charCode = charCode;
     this.frequency = frequency;
@@ -68,7 +68,7 @@ public class Triple{
    * Sets the frequency of occurrences of a character to be stored in a triple "node"
    * @param frequency  the frequency of times a character (in a triple "node") occurs
    */
-  public void setFrequency(Integer frequency){
+  public void setFrequency(Long frequency){
     this.frequency = frequency;
   }
   
@@ -76,7 +76,7 @@ public class Triple{
    * Method that returns the frequency of occurrences of a character stored in a triple "node"
    * @return the frequency number of occurrences of a character stored in a triple "node"
    */
-  public Integer getFrequency(){
+  public Long getFrequency(){
     return frequency;
   }
 }
\ No newline at end of file